@@ -0,0 +1,121 @@
+package com.ecom.benchmarks;
+
+import com.ecom.app.Models.CartItem;
+import com.ecom.app.Models.Product;
+import com.ecom.app.Models.User;
+import com.ecom.app.Repository.CartItemRepository;
+import com.ecom.app.Repository.ProductRepository;
+import com.ecom.app.Repository.UserRepository;
+import com.ecom.app.Service.CartService;
+import com.ecom.app.dto.CartItemRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    Add-to-cart throughput: the entity based flow CartService used to run
+    (product, user and cart line lookups followed by a save) against the
+    single MERGE statement it runs now. Every benchmark thread works on
+    its own user, spread over PRODUCTS products.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class AddToCartBenchmark {
+
+    private static final int PRODUCTS = 100;
+    private static final int USERS = 64;
+
+    @State(Scope.Benchmark)
+    public static class Shop {
+        ConfigurableApplicationContext context;
+        CartService cartService;
+        ProductRepository productRepository;
+        UserRepository userRepository;
+        CartItemRepository cartItemRepository;
+        TransactionTemplate transactionTemplate;
+        final AtomicLong nextUser = new AtomicLong(1);
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = EcomContext.start("add-to-cart");
+            cartService = context.getBean(CartService.class);
+            productRepository = context.getBean(ProductRepository.class);
+            userRepository = context.getBean(UserRepository.class);
+            cartItemRepository = context.getBean(CartItemRepository.class);
+            transactionTemplate = context.getBean(TransactionTemplate.class);
+
+            for (int i = 0; i < PRODUCTS; i++) {
+                Product product = new Product();
+                product.setName("product-" + i);
+                product.setPrice(100 + i);
+                product.setStockQuantity(Integer.MAX_VALUE);
+                productRepository.save(product);
+            }
+            for (int i = 0; i < USERS; i++) {
+                User user = new User();
+                user.setFirstName("user-" + i);
+                userRepository.save(user);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Shopper {
+        String userId;
+
+        @Setup(Level.Trial)
+        public void pickUser(Shop shop) {
+            userId = String.valueOf(shop.nextUser.getAndIncrement());
+        }
+
+        CartItemRequest nextRequest() {
+            CartItemRequest request = new CartItemRequest();
+            request.setProductId(ThreadLocalRandom.current().nextLong(1, PRODUCTS + 1));
+            request.setQuantity(1);
+            return request;
+        }
+    }
+
+    @Benchmark
+    public boolean lookupAndSave(Shop shop, Shopper shopper) {
+        CartItemRequest request = shopper.nextRequest();
+        return shop.transactionTemplate.execute(status -> {
+            Product product = shop.productRepository.findById(request.getProductId()).orElse(null);
+            if (product == null || product.getStockQuantity() < request.getQuantity()) return false;
+            User user = shop.userRepository.findById(Long.valueOf(shopper.userId)).orElse(null);
+            if (user == null) return false;
+
+            CartItem cartItem = shop.cartItemRepository.findByUserAndProduct(user, product);
+            if (cartItem == null) {
+                cartItem = new CartItem();
+                cartItem.setUser(user);
+                cartItem.setProduct(product);
+                cartItem.setQuantity(request.getQuantity());
+            } else {
+                cartItem.setQuantity(cartItem.getQuantity() + request.getQuantity());
+            }
+            cartItem.setPrice(BigDecimal.valueOf(product.getPrice()).multiply(BigDecimal.valueOf(cartItem.getQuantity())));
+            shop.cartItemRepository.save(cartItem);
+            return true;
+        });
+    }
+
+    @Benchmark
+    public boolean upsert(Shop shop, Shopper shopper) {
+        return shop.cartService.addToCart(shopper.userId, shopper.nextRequest());
+    }
+}
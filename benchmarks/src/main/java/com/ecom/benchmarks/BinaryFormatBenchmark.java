@@ -0,0 +1,99 @@
+package com.ecom.benchmarks;
+
+import com.ecom.app.Service.OrderService;
+import com.ecom.app.Service.Productservice;
+import com.ecom.app.dto.OrderResponse;
+import com.ecom.app.dto.ProductResponse;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/*
+    Encoding and decoding a 50-line OrderResponse and a page of 100
+    ProductResponses as JSON, Smile and CBOR. The mappers come from the
+    application's own Jackson2ObjectMapperBuilder, with the Smile and CBOR
+    factories set the way BinaryFormatsConfig sets them, so they carry the
+    same modules and settings as the HTTP message converters. The encode
+    benchmarks report the payload size as their bytes counter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinaryFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper mapper;
+    private JavaType productListType;
+    private OrderResponse order;
+    private List<ProductResponse> products;
+    private byte[] orderBytes;
+    private byte[] productBytes;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = EcomContext.start("binary-formats");
+        Jackson2ObjectMapperBuilder builder = context.getBean(Jackson2ObjectMapperBuilder.class);
+        mapper = switch (format) {
+            case "smile" -> builder.factory(new SmileFactory()).build();
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            default -> builder.build();
+        };
+        productListType = mapper.getTypeFactory().constructCollectionType(List.class, ProductResponse.class);
+        order = OrderService.mapToOrderResponse(Fixtures.order(Fixtures.user(1), 50));
+        products = IntStream.rangeClosed(1, 100)
+                .mapToObj(id -> Productservice.mapToProductResponse(Fixtures.product(id)))
+                .toList();
+        orderBytes = mapper.writeValueAsBytes(order);
+        productBytes = mapper.writeValueAsBytes(products);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] encodeOrder(PayloadSize size) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(order);
+        size.bytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public OrderResponse decodeOrder() throws IOException {
+        return mapper.readValue(orderBytes, OrderResponse.class);
+    }
+
+    @Benchmark
+    public byte[] encodeProducts(PayloadSize size) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(products);
+        size.bytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public List<ProductResponse> decodeProducts() throws IOException {
+        return mapper.readValue(productBytes, productListType);
+    }
+}
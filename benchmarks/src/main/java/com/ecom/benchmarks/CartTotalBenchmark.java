@@ -0,0 +1,49 @@
+package com.ecom.benchmarks;
+
+import com.ecom.app.Models.CartItem;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Summing cart lines (each already holds quantity * unit price): a
+    BigDecimal::add stream reduction against a plain loop. Checkout
+    itself no longer sums the lines, it takes the total kept by
+    CartSummary.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartTotalBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int cartLines;
+
+    private List<CartItem> cartItems;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cartItems = Fixtures.cartItems(Fixtures.user(1), cartLines);
+    }
+
+    @Benchmark
+    public BigDecimal streamReduce() {
+        return cartItems.stream()
+                .map(CartItem::getPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public BigDecimal forLoop() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartItem item : cartItems) {
+            total = total.add(item.getPrice());
+        }
+        return total;
+    }
+}
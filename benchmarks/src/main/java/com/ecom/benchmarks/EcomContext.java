@@ -0,0 +1,35 @@
+package com.ecom.benchmarks;
+
+import com.ecom.app.EcomApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    Boots ecom-application without the web layer against a private
+    in-memory H2 database, with SQL logging turned off. The settings are
+    passed as command line arguments so they win over the application's
+    own application.properties.
+ */
+public final class EcomContext {
+
+    private EcomContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String name, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(EcomApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+    }
+}
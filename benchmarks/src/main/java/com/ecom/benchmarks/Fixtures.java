@@ -0,0 +1,82 @@
+package com.ecom.benchmarks;
+
+import com.ecom.app.Models.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    Detached, fully populated entities for benchmarks that do not need a
+    database, with realistic field lengths and prices.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Wireless noise cancelling headphones " + id);
+        product.setDescription("Over-ear bluetooth headphones with 30 hours of battery life and a carrying case");
+        product.setPrice(199 + (int) (id % 100));
+        product.setStockQuantity(250);
+        product.setCategory("Electronics");
+        product.setImageUrl("https://cdn.example.com/products/" + id + ".jpg");
+        product.setCreatedAt(LocalDateTime.of(2025, 1, 1, 12, 0));
+        product.setUpdatedAt(LocalDateTime.of(2025, 6, 1, 12, 0));
+        return product;
+    }
+
+    static User user(long id) {
+        Address address = new Address();
+        address.setId(id);
+        address.setStreet("221B Baker Street");
+        address.setCity("London");
+        address.setState("Greater London");
+        address.setCountry("United Kingdom");
+        address.setZipcode("NW1 6XE");
+
+        User user = new User();
+        user.setId(id);
+        user.setFirstName("Aryan");
+        user.setLastName("Jaiswal");
+        user.setEmail("user" + id + "@example.com");
+        user.setPhone("+44 20 7946 0000");
+        user.setAddress(address);
+        return user;
+    }
+
+    static List<CartItem> cartItems(User user, int lines) {
+        List<CartItem> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            Product product = product(i + 1);
+            int quantity = 1 + i % 3;
+            CartItem item = new CartItem();
+            item.setId((long) i + 1);
+            item.setUser(user);
+            item.setProduct(product);
+            item.setQuantity(quantity);
+            item.setPrice(BigDecimal.valueOf(product.getPrice()).multiply(BigDecimal.valueOf(quantity)));
+            items.add(item);
+        }
+        return items;
+    }
+
+    static Order order(User user, int lines) {
+        Order order = new Order();
+        order.setId(1L);
+        order.setUser(user);
+        order.setStatus(OrderStatus.CONFIRMED);
+        order.setCreatedAt(LocalDateTime.of(2025, 6, 1, 12, 0));
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartItem item : cartItems(user, lines)) {
+            order.getItems().add(new OrderItem(item.getId(), item.getProduct(), item.getQuantity(), item.getPrice(), order));
+            total = total.add(item.getPrice());
+        }
+        order.setTotalAmount(total);
+        return order;
+    }
+}
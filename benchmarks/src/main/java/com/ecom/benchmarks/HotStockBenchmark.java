@@ -0,0 +1,69 @@
+package com.ecom.benchmarks;
+
+import com.ecom.app.Models.Product;
+import com.ecom.app.Repository.ProductRepository;
+import com.ecom.app.Service.StockReservationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Checkout stock reservation on a single contended product: the
+    conditional UPDATE path against the in-memory hot-SKU counter
+    (flushed to the table every 100 ms while the benchmark runs).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class HotStockBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private StockReservationService stockReservationService;
+    private TransactionTemplate transactionTemplate;
+    private Map<Long, Integer> hotLine;
+    private Map<Long, Integer> databaseLine;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = EcomContext.start("hot-stock",
+                "ecom.stock.hot.enabled=true",
+                "ecom.stock.hot.product-ids=1",
+                "ecom.stock.hot.flush-interval=100ms");
+        stockReservationService = context.getBean(StockReservationService.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        hotLine = Map.of(productRepository.save(product("hot")).getId(), 1);
+        databaseLine = Map.of(productRepository.save(product("regular")).getId(), 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Boolean databaseUpdate() {
+        return transactionTemplate.execute(status -> stockReservationService.reserve(databaseLine));
+    }
+
+    @Benchmark
+    public Boolean hotSkuCounter() {
+        return transactionTemplate.execute(status -> stockReservationService.reserve(hotLine));
+    }
+
+    private static Product product(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(100);
+        product.setStockQuantity(Integer.MAX_VALUE);
+        return product;
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecom.benchmarks;
+
+import com.ecom.app.Service.OrderService;
+import com.ecom.app.Service.Productservice;
+import com.ecom.app.dto.OrderResponse;
+import com.ecom.app.dto.ProductResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+    Jackson serialization of the two largest responses, with an
+    ObjectMapper configured the way Spring Boot configures the one
+    behind the REST controllers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ProductResponse product;
+
+    @State(Scope.Benchmark)
+    public static class OrderState {
+        @Param({"1", "10", "50"})
+        private int orderLines;
+
+        private OrderResponse order;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            order = OrderService.mapToOrderResponse(Fixtures.order(Fixtures.user(1), orderLines));
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        product = Productservice.mapToProductResponse(Fixtures.product(1));
+    }
+
+    @Benchmark
+    public byte[] productResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] orderResponse(OrderState state) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(state.order);
+    }
+}
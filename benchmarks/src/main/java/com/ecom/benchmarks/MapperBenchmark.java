@@ -0,0 +1,66 @@
+package com.ecom.benchmarks;
+
+import com.ecom.app.Models.Order;
+import com.ecom.app.Models.Product;
+import com.ecom.app.Models.User;
+import com.ecom.app.Service.OrderService;
+import com.ecom.app.Service.Productservice;
+import com.ecom.app.Service.UserService;
+import com.ecom.app.dto.OrderResponse;
+import com.ecom.app.dto.ProductResponse;
+import com.ecom.app.dto.UserResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+    The entity to DTO mappers every response goes through. orderResponse
+    also multiplies quantity by price once per line; its cost is reported
+    per order for orders of 1 to 50 lines. Add -prof gc to see the bytes
+    allocated per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private Product product;
+    private User user;
+
+    @State(Scope.Benchmark)
+    public static class OrderState {
+        @Param({"1", "10", "50"})
+        private int orderLines;
+
+        private Order order;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            order = Fixtures.order(Fixtures.user(1), orderLines);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        product = Fixtures.product(1);
+        user = Fixtures.user(1);
+    }
+
+    @Benchmark
+    public ProductResponse productResponse() {
+        return Productservice.mapToProductResponse(product);
+    }
+
+    @Benchmark
+    public UserResponse userResponse() {
+        return UserService.mapToUserResponse(user);
+    }
+
+    @Benchmark
+    public OrderResponse orderResponse(OrderState state) {
+        return OrderService.mapToOrderResponse(state.order);
+    }
+}
@@ -0,0 +1,88 @@
+package com.ecom.benchmarks;
+
+import com.ecom.app.Repository.ProductRepository;
+import com.ecom.app.Repository.UserRepository;
+import com.ecom.app.Service.Productservice;
+import com.ecom.app.Service.UserService;
+import com.ecom.app.dto.ProductResponse;
+import com.ecom.app.dto.UserResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Listing every product and every user the way the services used to,
+    loading entities in the repository's read-only transaction and mapping
+    them (the user path also loads each eager address with its own select),
+    against the constructor projections. Run with -prof gc
+    to compare the bytes allocated per listing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ProjectionBenchmark {
+
+    @Param({"100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private UserRepository userRepository;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = EcomContext.start("projection");
+        productRepository = context.getBean(ProductRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("INSERT INTO products (id, name, description, price, stock_quantity, category, image_url, active, " +
+                "created_at, updated_at) SELECT X, CONCAT('Product ', X), 'Over-ear bluetooth headphones with a case', " +
+                "100 + MOD(X, 500), 100, 'Electronics', CONCAT('https://cdn.example.com/', X, '.jpg'), TRUE, " +
+                "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, ?)", rows);
+        jdbc.update("INSERT INTO addresses (id, street, city, state, country, zipcode) " +
+                "SELECT X, CONCAT(X, ' Baker Street'), 'London', 'Greater London', 'United Kingdom', 'NW1 6XE' " +
+                "FROM SYSTEM_RANGE(1, ?)", rows);
+        jdbc.update("INSERT INTO user_table (id, first_name, last_name, email, phone, role, address_id, " +
+                "created_at, updated_at) SELECT X, CONCAT('User ', X), 'Jaiswal', CONCAT('user', X, '@example.com'), " +
+                "'+44 20 7946 0000', 0, X, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, ?)", rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductResponse> productEntities() {
+        return productRepository.findAll().stream()
+                .map(Productservice::mapToProductResponse)
+                .toList();
+    }
+
+    @Benchmark
+    public List<ProductResponse> productProjection() {
+        return productRepository.findActiveProductResponses();
+    }
+
+    @Benchmark
+    public List<UserResponse> userEntities() {
+        return userRepository.findAll().stream()
+                .map(UserService::mapToUserResponse)
+                .toList();
+    }
+
+    @Benchmark
+    public List<UserResponse> userProjection() {
+        return userRepository.findRowsAfter(0L, Limit.of(rows)).stream()
+                .map(UserService::mapToUserResponse)
+                .toList();
+    }
+}
@@ -0,0 +1,19 @@
+package com.ecom.app.Config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/*
+    Async checkout: POST /api/orders only records a PENDING order and
+    answers 202, a pool of workers completes it. When the queue is full
+    new orders are refused with 503 instead of piling up.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ecom.orders.async")
+public class AsyncOrderProperties {
+    private boolean enabled = false;
+    private int workers = 8;
+    private int queueCapacity = 1000;
+}
@@ -0,0 +1,24 @@
+package com.ecom.app.Config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/*
+    Hot-SKU mode: stock of the listed products is reserved against an
+    in-memory counter and written back to the products table every
+    flushInterval, instead of one UPDATE per checkout.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ecom.stock.hot")
+public class HotStockProperties {
+    private boolean enabled = false;
+    private Set<Long> productIds = new HashSet<>();
+    private Duration flushInterval = Duration.ofSeconds(1);
+    private int stripes = Runtime.getRuntime().availableProcessors();
+}
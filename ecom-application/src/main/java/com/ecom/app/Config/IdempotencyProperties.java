@@ -0,0 +1,21 @@
+package com.ecom.app.Config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+    Idempotency-Key support on POST /api/orders and POST /api/cart: how
+    many keys are remembered, for how long, and how long a duplicate
+    waits for the first request with its key to finish.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ecom.idempotency")
+public class IdempotencyProperties {
+    private long maximumKeys = 100_000;
+    private Duration ttl = Duration.ofHours(1);
+    private Duration waitTimeout = Duration.ofSeconds(30);
+}
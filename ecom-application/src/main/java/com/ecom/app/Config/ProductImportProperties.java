@@ -0,0 +1,25 @@
+package com.ecom.app.Config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/*
+    Bulk product import: rows per JDBC batch (also how often the
+    persistence context is flushed and cleared), rows per transaction,
+    where the per-row error files go and how long finished imports and
+    their error files are kept.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ecom.import")
+public class ProductImportProperties {
+    private int batchSize = 500;
+    private int commitInterval = 10_000;
+    private Path errorDirectory = Path.of(System.getProperty("java.io.tmpdir"), "ecom-imports");
+    private Duration retention = Duration.ofHours(24);
+    private long maximumImports = 100;
+}
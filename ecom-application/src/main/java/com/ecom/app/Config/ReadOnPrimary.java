@@ -0,0 +1,17 @@
+package com.ecom.app.Config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/*
+    A @Transactional(readOnly = true) method whose reads must see the
+    primary: cache fills, and reads answered under the catalog version's
+    ETag. ReadWriteRoutingDataSource sends its connection to the primary
+    without taking it for a write, so the user stays on the replica.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnPrimary {
+}
@@ -0,0 +1,26 @@
+package com.ecom.app.Config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+// around the transaction, so the flag is set before the connection is fetched
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReadOnPrimaryAspect {
+
+    @Around("@annotation(com.ecom.app.Config.ReadOnPrimary)")
+    public Object readOnPrimary(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (ReadWriteRoutingDataSource.isPrimaryRead()) {
+            return joinPoint.proceed();
+        }
+        ReadWriteRoutingDataSource.setPrimaryRead(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReadWriteRoutingDataSource.setPrimaryRead(false);
+        }
+    }
+}
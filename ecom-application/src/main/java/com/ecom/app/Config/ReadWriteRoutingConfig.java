@@ -0,0 +1,78 @@
+package com.ecom.app.Config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/*
+    Primary/replica split, on when ecom.datasource.replica.enabled is set.
+    -   The primary pool is the one spring.datasource.* describes, the
+        replica pool comes from ecom.datasource.replica.*; both are
+        read-write in Hikari terms, the replica is only ever handed
+        read-only transactions.
+    -   JPA and everything else get the routing data source, wrapped in a
+        LazyConnectionDataSourceProxy (see ReadWriteRoutingDataSource).
+    -   @ReadOnPrimary methods read the primary in read-only transactions.
+    -   Schema creation (ddl-auto) runs outside a read-only transaction,
+        so it goes to the primary; the replica is expected to follow it.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "ecom.datasource.replica", name = "enabled", havingValue = "true")
+public class ReadWriteRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(ReplicaProperties properties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaProperties properties, HikariDataSource primaryDataSource,
+                                 HikariDataSource replicaDataSource) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(properties);
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Target.PRIMARY, primaryDataSource,
+                ReadWriteRoutingDataSource.Target.REPLICA, replicaDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public ReadOnPrimaryAspect readOnPrimaryAspect() {
+        return new ReadOnPrimaryAspect();
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter() {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter());
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecom.app.Config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+    Sends the connections of read-only transactions to the replica and
+    everything else to the primary.
+    -   Has to sit behind a LazyConnectionDataSourceProxy: the transaction
+        manager asks for a connection before the read-only flag of the
+        transaction is exposed, the proxy only fetches the real one on the
+        first statement.
+    -   Read-your-writes: a write transaction run for a user (see
+        ReadYourWritesFilter) records the user when it commits, and that
+        user's read-only transactions stay on the primary for the window,
+        so a lagging replica never hides the user's own change. Other
+        users keep reading from the replica.
+    -   Read-only transactions of @ReadOnPrimary methods go to the primary
+        too, and are not writes: a user browsing the catalog keeps reading
+        the replica everywhere else.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<String> CURRENT_USER = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PRIMARY_READ = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadWriteRoutingDataSource(ReplicaProperties properties) {
+        recentWriters = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumRecentWriters())
+                .expireAfterWrite(properties.getReadYourWritesWindow())
+                .build();
+    }
+
+    public static void setCurrentUser(String userId) {
+        CURRENT_USER.set(userId);
+    }
+
+    public static void clearCurrentUser() {
+        CURRENT_USER.remove();
+    }
+
+    static boolean isPrimaryRead() {
+        return PRIMARY_READ.get() != null;
+    }
+
+    static void setPrimaryRead(boolean primaryRead) {
+        if (primaryRead) {
+            PRIMARY_READ.set(Boolean.TRUE);
+        } else {
+            PRIMARY_READ.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String userId = CURRENT_USER.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null) {
+                recordWriteOnCommit(userId);
+            }
+            return Target.PRIMARY;
+        }
+        if (isPrimaryRead()) {
+            return Target.PRIMARY;
+        }
+        return userId != null && recentWriters.getIfPresent(userId) != null ? Target.PRIMARY : Target.REPLICA;
+    }
+
+    // outside a transaction the statement is auto-committed, the write counts right away
+    private void recordWriteOnCommit(String userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recentWriters.put(userId, Boolean.TRUE);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(userId, Boolean.TRUE);
+            }
+        });
+    }
+}
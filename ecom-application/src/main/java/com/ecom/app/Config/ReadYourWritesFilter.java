@@ -0,0 +1,31 @@
+package com.ecom.app.Config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// exposes the X-User-ID of the request to ReadWriteRoutingDataSource for the duration of the request
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String USER_HEADER = "X-User-ID";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String userId = request.getHeader(USER_HEADER);
+        if (userId == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        ReadWriteRoutingDataSource.setCurrentUser(userId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadWriteRoutingDataSource.clearCurrentUser();
+        }
+    }
+}
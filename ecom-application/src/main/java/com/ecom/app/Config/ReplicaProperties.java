@@ -0,0 +1,26 @@
+package com.ecom.app.Config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+    Read replica behind @Transactional(readOnly = true): its connection
+    settings, pool size, and how long a user's reads stay on the primary
+    after one of the user's writes commits. The window should cover the
+    worst replication lag.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ecom.datasource.replica")
+public class ReplicaProperties {
+    private boolean enabled = false;
+    private String url;
+    private String username;
+    private String password;
+    private int maximumPoolSize = 10;
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+    private long maximumRecentWriters = 100_000;
+}
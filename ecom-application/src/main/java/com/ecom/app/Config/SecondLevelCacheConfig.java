@@ -0,0 +1,32 @@
+package com.ecom.app.Config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+
+import javax.cache.CacheManager;
+import java.io.IOException;
+
+/*
+    JCache manager behind the Hibernate second-level cache, with the
+    regions from hibernate-cache.conf. Each application context gets its
+    own provider and manager: the JCache default is one manager per JVM,
+    which would let contexts on different databases (tests, benchmarks)
+    read each other's rows.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() throws IOException {
+        return new CaffeineCachingProvider().getCacheManager(
+                new ClassPathResource("hibernate-cache.conf").getURI(), getClass().getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecom.app.Config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/*
+    Virtual-thread mode only: listens to the JFR jdk.VirtualThreadPinned
+    event and logs the stack of every virtual thread that blocked while
+    pinned to its carrier (typically inside a synchronized block) for
+    longer than ecom.threads.pinning-threshold. The count is exported as
+    ecom.threads.pinned.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningReporter {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_FRAMES = 15;
+
+    private final Duration threshold;
+    private final Counter pinned;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningReporter(@Value("${ecom.threads.pinning-threshold:20ms}") Duration threshold,
+                                        MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.pinned = Counter.builder("ecom.threads.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+        stream.startAsync();
+        log.info("Reporting virtual threads pinned for more than {} ms", threshold.toMillis());
+    }
+
+    private void report(RecordedEvent event) {
+        pinned.increment();
+        String frames = event.getStackTrace() == null ? "\tno stack trace" : event.getStackTrace().getFrames().stream()
+                .limit(MAX_FRAMES)
+                .map(VirtualThreadPinningReporter::format)
+                .collect(Collectors.joining("\n"));
+        log.warn("Virtual thread pinned for {} ms\n{}", event.getDuration().toMillis(), frames);
+    }
+
+    private static String format(RecordedFrame frame) {
+        return "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + "(line " + frame.getLineNumber() + ")";
+    }
+
+    @PreDestroy
+    public void stop() {
+        stream.close();
+    }
+}
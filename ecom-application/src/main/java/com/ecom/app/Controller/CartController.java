@@ -1,8 +1,10 @@
 package com.ecom.app.Controller;
 
 import com.ecom.app.Service.CartService;
+import com.ecom.app.dto.CartBatchLineResult;
 import com.ecom.app.dto.CartItemDTO;
 import com.ecom.app.dto.CartItemRequest;
+import com.ecom.app.dto.CartSummaryResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,15 +18,30 @@ import java.util.List;
 public class CartController {
 
     private final CartService cartService;
+    private final IdempotencyStore idempotencyStore;
 
+    // a retry with the same Idempotency-Key does not add the quantity twice
     @PostMapping
     public ResponseEntity<String> addToCart(@RequestHeader("X-User-ID") String userId,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
             @RequestBody CartItemRequest request){
-        return cartService.addToCart(userId, request) ?
-                ResponseEntity.status(HttpStatus.CREATED).build() :
-                ResponseEntity.status(HttpStatus.BAD_REQUEST).body(
-                        "Product Out of Stock or User not found"
-                );
+        return idempotencyStore.execute("POST /api/cart " + userId, idempotencyKey, request, () ->
+                cartService.addToCart(userId, request) ?
+                        ResponseEntity.status(HttpStatus.CREATED).<String>build() :
+                        ResponseEntity.status(HttpStatus.BAD_REQUEST).body(
+                                "Product Out of Stock or User not found"
+                        ));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<CartBatchLineResult>> addToCartBatch(@RequestHeader("X-User-ID") String userId,
+            @RequestBody List<CartItemRequest> requests){
+        if (requests.size() > CartService.MAX_BATCH_LINES) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        return cartService.addToCartBatch(userId, requests)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.badRequest().build());
     }
 
     @DeleteMapping("/items/{productId}")
@@ -41,4 +58,10 @@ public class CartController {
     public ResponseEntity<List<CartItemDTO>> getCart(@RequestHeader("X-User-ID")String userId){
         return ResponseEntity.ok(cartService.getAllProducts(userId));
     }
+
+    // cart badge: item count and total
+    @GetMapping("/summary")
+    public ResponseEntity<CartSummaryResponse> getCartSummary(@RequestHeader("X-User-ID")String userId){
+        return ResponseEntity.ok(cartService.getSummary(userId));
+    }
 }
@@ -0,0 +1,137 @@
+package com.ecom.app.Controller;
+
+import com.ecom.app.Config.IdempotencyProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/*
+    In-process store behind the Idempotency-Key header. The first request
+    with a key runs and its response is kept (bounded, expiring); requests
+    repeating the key get that response back without running again.
+    -   A duplicate arriving while the first one is still running waits for
+        it instead of running in parallel, and gets 409 if it waits longer
+        than ecom.idempotency.wait-timeout.
+    -   Reusing a key with a different request body is refused with 422.
+    -   Only responses below 500 are kept, so a failed request can be
+        retried with the same key. Exceptions are not kept either.
+    -   Keys are scoped by endpoint and user, ecom.idempotency.requests
+        counts outcomes (executed, replayed, waited, conflict, timeout).
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private record Entry(Object request, CompletableFuture<ResponseEntity<?>> response) {
+    }
+
+    private final Cache<String, Entry> entries;
+    private final Duration waitTimeout;
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter waited;
+    private final Counter conflicts;
+    private final Counter timeouts;
+
+    public IdempotencyStore(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumKeys())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        this.waitTimeout = properties.getWaitTimeout();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "idempotency");
+        this.executed = outcome(meterRegistry, "executed");
+        this.replayed = outcome(meterRegistry, "replayed");
+        this.waited = outcome(meterRegistry, "waited");
+        this.conflicts = outcome(meterRegistry, "conflict");
+        this.timeouts = outcome(meterRegistry, "timeout");
+    }
+
+    /*
+        Runs action at most once per (scope, key). request is what the
+        client sent, compared with equals against the first request. Without
+        a key the action simply runs.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(String scope, String key, Object request,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        String cacheKey = scope + '\n' + key;
+        while (true) {
+            Entry mine = new Entry(request, new CompletableFuture<>());
+            Entry existing = entries.asMap().putIfAbsent(cacheKey, mine);
+            if (existing == null) {
+                return run(cacheKey, mine, action);
+            }
+            if (!Objects.equals(existing.request(), request)) {
+                conflicts.increment();
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+            }
+            boolean inFlight = !existing.response().isDone();
+            try {
+                ResponseEntity<?> response = existing.response().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                (inFlight ? waited : replayed).increment();
+                return (ResponseEntity<T>) replay(response);
+            } catch (ExecutionException e) {
+                // the first request failed and gave its key up, take it over
+            } catch (TimeoutException e) {
+                timeouts.increment();
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+        }
+    }
+
+    private <T> ResponseEntity<T> run(String cacheKey, Entry entry, Supplier<ResponseEntity<T>> action) {
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            entries.asMap().remove(cacheKey, entry);
+            entry.response().completeExceptionally(e);
+            throw e;
+        }
+        executed.increment();
+        if (response.getStatusCode().is5xxServerError()) {
+            entries.asMap().remove(cacheKey, entry);
+        }
+        entry.response().complete(response);
+        return response;
+    }
+
+    private static ResponseEntity<?> replay(ResponseEntity<?> response) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(headers -> {
+                    headers.addAll(response.getHeaders());
+                    headers.set(REPLAYED_HEADER, "true");
+                })
+                .body(response.getBody());
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ecom.idempotency.requests")
+                .description("Requests with an Idempotency-Key, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
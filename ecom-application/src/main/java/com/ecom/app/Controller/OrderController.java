@@ -1,15 +1,19 @@
 package com.ecom.app.Controller;
 
+import com.ecom.app.Service.AsyncOrderProcessor;
 import com.ecom.app.Service.OrderService;
 import com.ecom.app.dto.OrderResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.net.URI;
 import java.util.Optional;
 
 @RestController
@@ -18,12 +22,54 @@ import java.util.Optional;
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyStore idempotencyStore;
+    // only present when ecom.orders.async.enabled=true
+    private final Optional<AsyncOrderProcessor> asyncOrderProcessor;
 
+    // a retry with the same Idempotency-Key gets the first response back instead of a second order
     @PostMapping
     public ResponseEntity<OrderResponse> createOrder(
-            @RequestHeader("X-User-ID") String userId){
-        return orderService.createOrder(userId)
-                .map(orderResponse -> new ResponseEntity<>(orderResponse,HttpStatus.CREATED))
+            @RequestHeader("X-User-ID") String userId,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey){
+        return idempotencyStore.execute("POST /api/orders " + userId, idempotencyKey, null, () -> {
+            if(asyncOrderProcessor.isPresent()){
+                return submitOrder(userId, asyncOrderProcessor.get());
+            }
+            return orderService.createOrder(userId)
+                    .map(orderResponse -> new ResponseEntity<>(orderResponse,HttpStatus.CREATED))
+                    .orElseGet(() -> ResponseEntity.badRequest().build());
+        });
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<OrderResponse> getOrder(
+            @RequestHeader("X-User-ID") String userId,
+            @PathVariable Long id){
+        return orderService.getOrder(id, userId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /*
+        Async checkout: 202 with the PENDING order and its status URL,
+        409 with the order still pending from an earlier checkout, 503 when
+        the worker queue is full.
+     */
+    private ResponseEntity<OrderResponse> submitOrder(String userId, AsyncOrderProcessor processor) {
+        if(!processor.hasCapacity()){
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return orderService.submitOrder(userId)
+                .map(submission -> {
+                    OrderResponse order = submission.getOrder();
+                    if(submission.isAlreadyPending()){
+                        return ResponseEntity.status(HttpStatus.CONFLICT)
+                                .location(URI.create("/api/orders/" + order.getId())).body(order);
+                    }
+                    return processor.enqueue(order.getId())
+                            ? ResponseEntity.accepted().location(URI.create("/api/orders/" + order.getId())).body(order)
+                            : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).<OrderResponse>build();
+                })
                 .orElseGet(() -> ResponseEntity.badRequest().build());
     }
 }
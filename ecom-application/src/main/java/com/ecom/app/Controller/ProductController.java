@@ -1,20 +1,54 @@
 package com.ecom.app.Controller;
 
+import com.ecom.app.Service.CatalogVersion;
+import com.ecom.app.Service.ProductImportService;
 import com.ecom.app.Service.Productservice;
+import com.ecom.app.dto.CategoryFacet;
+import com.ecom.app.dto.ImportReport;
+import com.ecom.app.dto.PageResponse;
 import com.ecom.app.dto.ProductRequest;
 import com.ecom.app.dto.ProductResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/products")
 public class ProductController {
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    // what the message converters can write, JSON first like them
+    private static final List<MediaType> REPRESENTATIONS = List.of(MediaType.APPLICATION_JSON,
+            MediaType.parseMediaType("application/x-jackson-smile"), MediaType.APPLICATION_CBOR);
+
     private final Productservice productservice;
+    private final CatalogVersion catalogVersion;
+    private final ObjectMapper objectMapper;
+    private final ProductImportService productImportService;
+    // missing when the application runs without the web layer, as in the benchmarks
+    private final ObjectProvider<ContentNegotiationManager> contentNegotiationManager;
+
     @PostMapping
     public ResponseEntity<ProductResponse> createProduct(@RequestBody ProductRequest productRequest){
         return new ResponseEntity<ProductResponse>(productservice.createProduct(productRequest),
@@ -22,12 +56,81 @@ public class ProductController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ProductResponse>> getProducts(){
-        return ResponseEntity.ok(productservice.getAllProducts());
+    public ResponseEntity<List<ProductResponse>> getProducts(
+            @RequestParam(required = false) String category,
+            NativeWebRequest request){
+        return versioned(request, () -> Optional.of(category == null ?
+                productservice.getAllProducts() :
+                productservice.getProductsInCategory(category)), HttpStatus.OK);
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<List<CategoryFacet>> getCategoryFacets(NativeWebRequest request){
+        return versioned(request, () -> Optional.of(productservice.getCategoryFacets()), HttpStatus.OK);
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<PageResponse<ProductResponse>> getProductPage(
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String category,
+            NativeWebRequest request){
+        return versioned(request, () -> productservice.getProductPage(cursor, limit, category), HttpStatus.BAD_REQUEST);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProducts(){
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer()
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                productservice.streamActiveProducts(product -> {
+                    try {
+                        writer.write(product);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
 
 
+    // rows are parsed and saved while the upload is still coming in, the answer is the final report
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<ImportReport> importCsv(InputStream body){
+        return imported(productImportService.importCsv(body));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportReport> importNdjson(InputStream body){
+        return imported(productImportService.importNdjson(body));
+    }
+
+    // progress of running imports, and recent results
+    @GetMapping("/imports")
+    public ResponseEntity<List<ImportReport>> getImports(){
+        return ResponseEntity.ok(productImportService.getImports());
+    }
+
+    @GetMapping("/imports/{id}")
+    public ResponseEntity<ImportReport> getImport(@PathVariable String id){
+        return productImportService.getImport(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/imports/{id}/errors", produces = TEXT_CSV_VALUE)
+    public ResponseEntity<Resource> getImportErrors(@PathVariable String id){
+        return productImportService.getErrorFile(id)
+                .<ResponseEntity<Resource>>map(file -> ResponseEntity.ok(new FileSystemResource(file)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponse> updateProduct(
             @PathVariable Long id,
@@ -47,15 +150,66 @@ public class ProductController {
 
     @GetMapping("/search")
     public ResponseEntity<List<ProductResponse>> searchProducts(
-            @RequestParam String keyword){
-        return ResponseEntity.ok(productservice.searchProducts(keyword));
+            @RequestParam String keyword,
+            @RequestParam(required = false) String category,
+            NativeWebRequest request){
+        return versioned(request, () -> Optional.of(productservice.searchProducts(keyword, category)), HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<ProductResponse> getProduct(
-            @PathVariable Long id){
-        return productservice.getProduct(id)
-            .map(ResponseEntity::ok)
-            .orElseGet(() -> ResponseEntity.notFound().build());
+            @PathVariable Long id,
+            NativeWebRequest request){
+        return versioned(request, () -> productservice.getProduct(id), HttpStatus.NOT_FOUND);
+    }
+
+    // an upload that could not be read to the end is the client's problem
+    private static ResponseEntity<ImportReport> imported(ImportReport report) {
+        return ProductImportService.Status.FAILED.name().equals(report.getStatus()) ?
+                ResponseEntity.badRequest().body(report) :
+                ResponseEntity.ok(report);
+    }
+
+    /*
+        Conditional GET on the catalog version: a matching If-None-Match is
+        answered with 304 before the service is called. Otherwise the body
+        goes out with the version as its ETag, and clients and CDNs must
+        revalidate before reusing it. An empty body gives the missing
+        status, without an ETag. The tag names the representation Accept
+        selects and the response varies on Accept, so a cache never
+        revalidates a Smile body with a JSON tag or hands one out for the
+        other.
+     */
+    private <T> ResponseEntity<T> versioned(NativeWebRequest request, Supplier<Optional<T>> body, HttpStatus missing) {
+        // read before the data, so the tag is never newer than the body
+        String etag = catalogVersion.etag(representation(request));
+        request.getNativeResponse(HttpServletResponse.class).addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return body.get()
+                .map(value -> ResponseEntity.ok()
+                        .eTag(etag)
+                        .cacheControl(CacheControl.noCache())
+                        .body(value))
+                .orElseGet(() -> ResponseEntity.status(missing).build());
+    }
+
+    // the subtype of the first acceptable representation, as the converters will pick it
+    private String representation(NativeWebRequest request) {
+        try {
+            // without Boot's manager, a plain one reads the Accept header like Boot's default
+            ContentNegotiationManager manager = contentNegotiationManager.getIfAvailable(ContentNegotiationManager::new);
+            for (MediaType accepted : manager.resolveMediaTypes(request)) {
+                for (MediaType representation : REPRESENTATIONS) {
+                    if (accepted.isCompatibleWith(representation)) {
+                        return representation.getSubtype();
+                    }
+                }
+            }
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            // an unreadable Accept header is turned down by the converters, not here
+        }
+        return MediaType.APPLICATION_JSON.getSubtype();
     }
 }
@@ -3,6 +3,7 @@ package com.ecom.app.Controller;
 
 import com.ecom.app.Models.User;
 import com.ecom.app.Service.UserService;
+import com.ecom.app.dto.PageResponse;
 import com.ecom.app.dto.UserRequest;
 import com.ecom.app.dto.UserResponse;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +25,15 @@ public class UserController {
         return new ResponseEntity<>(userService.fetchAllUsers(),HttpStatus.OK);
     }
 
+    @GetMapping(params = "limit")
+    public ResponseEntity<PageResponse<UserResponse>> getUserPage(
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor){
+        return userService.fetchUserPage(cursor, limit)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.badRequest().build());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<UserResponse> getUser(@PathVariable Long id){
         return userService.fetchUser(id)
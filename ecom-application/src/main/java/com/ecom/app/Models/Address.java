@@ -11,7 +11,8 @@ import lombok.NoArgsConstructor;
 @Entity(name = "addresses")
 public class Address {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "addresses_seq")
+    @SequenceGenerator(name = "addresses_seq", allocationSize = 50)
     private Long id;
     private String street;
     private String city;
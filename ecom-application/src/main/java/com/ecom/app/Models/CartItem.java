@@ -9,10 +9,13 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity(name = "cartItems")
+@Table(uniqueConstraints = @UniqueConstraint(
+        name = "uk_cart_items_user_product", columnNames = {"user_id", "product_id"}))
 @Data
 public class CartItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_items_seq")
+    @SequenceGenerator(name = "cart_items_seq", allocationSize = 50)
     private Long id;
     @ManyToOne
     @JoinColumn(name = "user_id",nullable = false)
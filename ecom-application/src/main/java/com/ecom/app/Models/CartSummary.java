@@ -0,0 +1,36 @@
+package com.ecom.app.Models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    One row per user with the cart's item count, total and a snapshot of
+    its lines (a JSON column). CartService keeps it in step with
+    cart_items in the same transaction, under a row lock, so reading the
+    cart or its badge is a single primary key lookup.
+ */
+@Entity(name = "cart_summary")
+@Data
+public class CartSummary {
+    @Id
+    private Long userId;
+    private String userName;
+    private Integer itemCount = 0;
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<CartLine> lines = new ArrayList<>();
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    // id is the cart_items row, price is quantity * unit price like on the row
+    public record CartLine(Long id, Long productId, String productName, Integer quantity, BigDecimal price) {
+    }
+}
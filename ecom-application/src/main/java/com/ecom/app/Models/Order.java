@@ -19,9 +19,11 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", allocationSize = 50)
     private Long id;
-    @OneToOne
+    // a user keeps every order, cancelled ones included; OrderService allows one PENDING at a time
+    @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     private BigDecimal totalAmount;
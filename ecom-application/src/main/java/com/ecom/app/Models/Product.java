@@ -6,19 +6,39 @@ import jakarta.persistence.criteria.CriteriaBuilder;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+/*
+    Kept in the Hibernate second-level cache: cart and checkout resolve
+    products by id without SQL. Changes made through the entity update the
+    cache on commit; the native stock updates in ProductStockRepository
+    bypass it and evict the ids they touched after commit. Updates write
+    only the changed columns, so saving an entity read before a stock
+    update does not put the old stock back. The version is what lets
+    Hibernate keep updating the cached row in place with dynamic updates
+    instead of invalidating it; the stock updates do not change it.
+ */
 @Data
 @Entity(name = "products")
+// category listings and pages are range scans on (category, id)
+@Table(indexes = @Index(name = "idx_products_category_id", columnList = "category, id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
+@DynamicUpdate
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", allocationSize = 50)
     private Long id;
     private String name;
     private String description;
@@ -27,6 +47,10 @@ public class Product {
     private String category;
     private String imageUrl;
     private Boolean active = true;
+    // rows inserted by plain SQL start at 0
+    @Version
+    @ColumnDefault("0")
+    private Long version;
     @CreationTimestamp
     private LocalDateTime createdAt;
     @UpdateTimestamp
@@ -17,7 +17,8 @@ import java.util.List;
 @Entity(name = "user_table")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_table_seq")
+    @SequenceGenerator(name = "user_table_seq", allocationSize = 50)
     private Long id;
     private String firstName;
     private String lastName;
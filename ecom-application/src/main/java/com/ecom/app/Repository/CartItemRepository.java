@@ -3,16 +3,76 @@ package com.ecom.app.Repository;
 import com.ecom.app.Models.CartItem;
 import com.ecom.app.Models.Product;
 import com.ecom.app.Models.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
 
 public interface CartItemRepository extends JpaRepository<CartItem,Long> {
     CartItem findByUserAndProduct(User user, Product product);
 
-    void deleteByUserAndProduct(User user, Product product);
+    /*
+        Bulk deletes: one DELETE statement each, instead of the derived
+        deleteBy* methods that load every line and remove it one by one.
+        Pending changes are flushed first and the persistence context is
+        cleared afterwards, so no stale cart lines stay managed.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM cartItems c WHERE c.user.id = :userId AND c.product.id = :productId")
+    int deleteByUserIdAndProductId(@Param("userId") Long userId, @Param("productId") Long productId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM cartItems c WHERE c.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
 
     List<CartItem> findByUser(User user);
 
-    void deleteByUser(User user);
+    List<CartItem> findByUserAndProductIdIn(User user, Collection<Long> productIds);
+
+    // cart lines with their user (and the user's address) in a single select; products come from the second-level cache
+    @Query("SELECT c FROM cartItems c JOIN FETCH c.user u LEFT JOIN FETCH u.address " +
+            "WHERE u.id = :userId ORDER BY c.id")
+    List<CartItem> findWithUserByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT c.id FROM cartItems c WHERE c.user.id = :userId AND c.product.id = :productId")
+    Optional<Long> findIdByUserIdAndProductId(@Param("userId") Long userId, @Param("productId") Long productId);
+
+    /*
+        Adds quantity of a product to the user's cart in one round trip.
+        The USING clause yields a row only when the user exists and the
+        product has enough stock, so 0 updated rows means the add was
+        rejected. The (user_id, product_id) unique key makes the row to
+        increment unambiguous. New rows take their id straight from
+        cart_items_seq; with the pooled optimizer each sequence value owns
+        its own block, so this never collides with ids Hibernate hands out.
+        Declaring cart_items as its only query space keeps Hibernate from
+        invalidating every second-level cache region, which it does for a
+        native statement it knows nothing about.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "cart_items"))
+    @Query(value = """
+            MERGE INTO cart_items c
+            USING (SELECT u.id AS user_id, p.id AS product_id, p.price AS unit_price
+                   FROM products p JOIN user_table u ON u.id = :userId
+                   WHERE p.id = :productId AND p.stock_quantity >= :quantity) s
+            ON (c.user_id = s.user_id AND c.product_id = s.product_id)
+            WHEN MATCHED THEN UPDATE SET
+                quantity = c.quantity + :quantity,
+                price = s.unit_price * (c.quantity + :quantity),
+                update_at = CURRENT_TIMESTAMP
+            WHEN NOT MATCHED THEN INSERT (id, user_id, product_id, quantity, price, created_at, update_at)
+                VALUES (NEXT VALUE FOR cart_items_seq, s.user_id, s.product_id, :quantity, s.unit_price * :quantity, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            """, nativeQuery = true)
+    int upsertCartItem(@Param("userId") Long userId,
+                       @Param("productId") Long productId,
+                       @Param("quantity") Integer quantity);
 }
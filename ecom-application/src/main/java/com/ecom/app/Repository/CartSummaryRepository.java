@@ -0,0 +1,56 @@
+package com.ecom.app.Repository;
+
+import com.ecom.app.Models.CartSummary;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+public interface CartSummaryRepository extends JpaRepository<CartSummary, Long> {
+
+    // SELECT ... FOR UPDATE: cart changes of one user are applied one at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM cart_summary s WHERE s.userId = :userId")
+    Optional<CartSummary> findForUpdate(@Param("userId") Long userId);
+
+    // SELECT ... FOR UPDATE on the user's row; empty when the user does not exist
+    @Query(value = "SELECT id FROM user_table WHERE id = :userId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockUser(@Param("userId") Long userId);
+
+    /*
+        Creates the empty summary of an existing user. 0 rows when the
+        summary exists already or the user does not exist. The MERGE alone
+        does not stop two first adds racing each other: both can miss the
+        row and the second insert fails on the primary key, so callers hold
+        the lock of lockUser around it.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "cart_summary"))
+    @Query(value = """
+            MERGE INTO cart_summary s
+            USING (SELECT id, first_name FROM user_table WHERE id = :userId) u
+            ON (s.user_id = u.id)
+            WHEN NOT MATCHED THEN INSERT (user_id, user_name, item_count, total_amount, lines, updated_at)
+                VALUES (u.id, u.first_name, 0, 0, JSON '[]', CURRENT_TIMESTAMP)
+            """, nativeQuery = true)
+    int createIfMissing(@Param("userId") Long userId);
+
+    // pending changes are flushed first, the persistence context is cleared afterwards
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "cart_summary"))
+    @Query(value = "UPDATE cart_summary SET item_count = 0, total_amount = 0, lines = JSON '[]', " +
+            "updated_at = CURRENT_TIMESTAMP WHERE user_id = :userId", nativeQuery = true)
+    int reset(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE cart_summary s SET s.userName = :userName WHERE s.userId = :userId")
+    int updateUserName(@Param("userId") Long userId, @Param("userName") String userName);
+}
@@ -1,9 +1,25 @@
 package com.ecom.app.Repository;
 
 import com.ecom.app.Models.Order;
+import com.ecom.app.Models.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order,Long> {
+
+    // the order with its lines and their products, only if it belongs to the user
+    @Query("SELECT DISTINCT o FROM orders o JOIN FETCH o.user u LEFT JOIN FETCH u.address " +
+            "LEFT JOIN FETCH o.items i LEFT JOIN FETCH i.product WHERE o.id = :id AND u.id = :userId")
+    Optional<Order> findWithItemsByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    Optional<Order> findFirstByUserIdAndStatus(Long userId, OrderStatus status);
+
+    @Query("SELECT o.id FROM orders o WHERE o.status = :status ORDER BY o.id")
+    List<Long> findIdsByStatus(@Param("status") OrderStatus status);
 }
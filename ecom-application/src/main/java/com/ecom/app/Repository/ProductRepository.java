@@ -2,18 +2,68 @@ package com.ecom.app.Repository;
 
 import com.ecom.app.Models.Product;
 import com.ecom.app.dto.ProductResponse;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+import static org.hibernate.jpa.SpecHints.HINT_SPEC_CACHE_STORE_MODE;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product,Long> {
-    List<Product> findByActiveTrue();
+public interface ProductRepository extends JpaRepository<Product,Long>, ProductStockRepository {
+    // SELECT ... FOR UPDATE, straight from the table
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM products p WHERE p.id = :id")
+    Optional<Product> findForUpdate(@Param("id") Long id);
+
+    // active products selected straight into DTOs, no entities are loaded
+    @Query("SELECT new com.ecom.app.dto.ProductResponse(p.id, p.name, p.description, p.price, " +
+            "p.stockQuantity, p.category, p.imageUrl, p.active) FROM products p WHERE p.active = true ORDER BY p.id")
+    List<ProductResponse> findActiveProductResponses();
+
+    @Query("SELECT new com.ecom.app.dto.ProductResponse(p.id, p.name, p.description, p.price, " +
+            "p.stockQuantity, p.category, p.imageUrl, p.active) FROM products p " +
+            "WHERE p.category = :category AND p.active = true ORDER BY p.id")
+    List<ProductResponse> findActiveProductResponsesByCategory(@Param("category") String category);
+
+    /*
+        The queries below BYPASS the second-level cache so a replica read
+        never fills the region with stale products. Only the NDJSON stream
+        runs read-only on the replica; the pages and the search read the
+        primary (@ReadOnPrimary) but keep the hint for when that changes.
+     */
+    @QueryHints(@QueryHint(name = HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS"))
+    List<Product> findByActiveTrueAndIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 
+    @QueryHints(@QueryHint(name = HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS"))
+    List<Product> findByActiveTrueAndCategoryAndIdGreaterThanOrderByIdAsc(String category, Long id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS")
+    })
+    @Query("SELECT p FROM products p WHERE p.active = true ORDER BY p.id")
+    Stream<Product> streamByActiveTrue();
+
+    @QueryHints(@QueryHint(name = HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS"))
     @Query("SELECT p FROM products p WHERE p.active = true AND p.stockQuantity>0 AND LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Product> searchProducts(@Param("keyword") String keyword);
+
+    @QueryHints(@QueryHint(name = HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS"))
+    @Query("SELECT p FROM products p WHERE p.category = :category AND p.active = true AND p.stockQuantity>0 " +
+            "AND LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
+    List<Product> searchProductsInCategory(@Param("keyword") String keyword, @Param("category") String category);
 }
@@ -0,0 +1,22 @@
+package com.ecom.app.Repository;
+
+/*
+    Stock updates straight on the table, mixed into ProductRepository.
+    Native, because a JPQL bulk update would invalidate the whole Product
+    region; each update evicts the cached entity of the row it changed
+    once its transaction commits, so callers never deal with the cache.
+ */
+public interface ProductStockRepository {
+    /*
+        Query space of the stock updates. No entity uses it, so a stock
+        update does not invalidate the whole Product region; the touched
+        ids are evicted one by one instead.
+     */
+    String STOCK_QUERY_SPACE = "products_stock";
+
+    // 0 updated rows means there was not enough stock left
+    int decrementStock(Long id, int quantity);
+
+    // unconditional, for stock that was already reserved elsewhere
+    int subtractStock(Long id, int quantity);
+}
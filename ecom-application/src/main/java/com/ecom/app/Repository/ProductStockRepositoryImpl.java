@@ -0,0 +1,51 @@
+package com.ecom.app.Repository;
+
+import com.ecom.app.Models.Product;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+@RequiredArgsConstructor
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int decrementStock(Long id, int quantity) {
+        return updateStock("UPDATE products SET stock_quantity = stock_quantity - :quantity, " +
+                "updated_at = LOCALTIMESTAMP WHERE id = :id AND stock_quantity >= :quantity", id, quantity);
+    }
+
+    @Override
+    @Transactional
+    public int subtractStock(Long id, int quantity) {
+        return updateStock("UPDATE products SET stock_quantity = stock_quantity - :quantity, " +
+                "updated_at = LOCALTIMESTAMP WHERE id = :id", id, quantity);
+    }
+
+    /*
+        The cached entity is evicted after the commit, not now: until then
+        a cache miss would load the old row and put it back.
+     */
+    private int updateStock(String sql, Long id, int quantity) {
+        int updated = entityManager.createNativeQuery(sql)
+                .setHint(HINT_NATIVE_SPACES, STOCK_QUERY_SPACE)
+                .setParameter("id", id)
+                .setParameter("quantity", quantity)
+                .executeUpdate();
+        if (updated > 0) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entityManager.getEntityManagerFactory().getCache().evict(Product.class, id);
+                }
+            });
+        }
+        return updated;
+    }
+}
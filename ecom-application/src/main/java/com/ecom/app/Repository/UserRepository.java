@@ -1,9 +1,21 @@
 package com.ecom.app.Repository;
 
 import com.ecom.app.Models.User;
+import com.ecom.app.dto.UserRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface UserRepository extends JpaRepository<User,Long> {
+
+    // one keyset page of users with their address in one select, straight into rows, no entities are loaded
+    @Query("SELECT new com.ecom.app.dto.UserRow(u.id, u.firstName, u.lastName, u.email, u.phone, u.role, " +
+            "a.id, a.street, a.city, a.state, a.country, a.zipcode) FROM user_table u LEFT JOIN u.address a " +
+            "WHERE u.id > :afterId ORDER BY u.id")
+    List<UserRow> findRowsAfter(@Param("afterId") Long afterId, Limit limit);
 }
@@ -0,0 +1,108 @@
+package com.ecom.app.Service;
+
+import com.ecom.app.Config.AsyncOrderProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+    Completes orders submitted in async checkout mode.
+    -   A fixed pool of workers drains a bounded queue of order ids, so a
+        burst of checkouts waits here instead of holding Tomcat threads.
+        The workers are virtual threads in virtual-thread mode.
+    -   An order that cannot be completed (empty cart, short stock, error)
+        is CANCELLED; an order that cannot even be queued is cancelled
+        right away and the caller answers 503.
+    -   PENDING orders left over from a previous run are queued again on
+        startup.
+    -   Metrics: ecom.orders.queue.depth, ecom.orders.queue.wait and
+        ecom.orders.processing.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "ecom.orders.async", name = "enabled", havingValue = "true")
+public class AsyncOrderProcessor {
+
+    private final OrderService orderService;
+    private final ThreadPoolTaskExecutor executor;
+    private final Timer queueWait;
+    private final Timer processing;
+
+    public AsyncOrderProcessor(OrderService orderService, AsyncOrderProperties properties,
+                               MeterRegistry meterRegistry, Environment environment) {
+        this.orderService = orderService;
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getWorkers());
+        executor.setMaxPoolSize(properties.getWorkers());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("order-worker-");
+        executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+
+        Gauge.builder("ecom.orders.queue.depth", executor, pool -> pool.getThreadPoolExecutor().getQueue().size())
+                .description("Submitted orders waiting for a worker")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("ecom.orders.queue.wait")
+                .description("Time from submission until a worker picks the order up")
+                .register(meterRegistry);
+        this.processing = Timer.builder("ecom.orders.processing")
+                .description("Time a worker spends completing an order")
+                .register(meterRegistry);
+    }
+
+    public boolean hasCapacity() {
+        return executor.getThreadPoolExecutor().getQueue().remainingCapacity() > 0;
+    }
+
+    /*
+        Queues the order for completion. Returns false, after cancelling
+        the order, when the queue is full.
+     */
+    public boolean enqueue(Long orderId) {
+        long submittedAt = System.nanoTime();
+        try {
+            executor.execute(() -> process(orderId, submittedAt));
+            return true;
+        } catch (TaskRejectedException e) {
+            orderService.cancelOrder(orderId);
+            return false;
+        }
+    }
+
+    private void process(Long orderId, long submittedAt) {
+        queueWait.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+        processing.record(() -> {
+            try {
+                if (!orderService.completeOrder(orderId)) {
+                    orderService.cancelOrder(orderId);
+                }
+            } catch (RuntimeException e) {
+                log.error("Completing order {} failed", orderId, e);
+                orderService.cancelOrder(orderId);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        orderService.findPendingOrderIds().forEach(this::enqueue);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
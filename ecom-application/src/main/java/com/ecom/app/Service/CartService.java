@@ -1,93 +1,208 @@
 package com.ecom.app.Service;
 
 import com.ecom.app.Models.CartItem;
+import com.ecom.app.Models.CartSummary;
+import com.ecom.app.Models.CartSummary.CartLine;
 import com.ecom.app.Models.Product;
 import com.ecom.app.Models.User;
 import com.ecom.app.Repository.CartItemRepository;
+import com.ecom.app.Repository.CartSummaryRepository;
 import com.ecom.app.Repository.ProductRepository;
 import com.ecom.app.Repository.UserRepository;
+import com.ecom.app.dto.CartBatchLineResult;
 import com.ecom.app.dto.CartItemDTO;
 import com.ecom.app.dto.CartItemRequest;
+import com.ecom.app.dto.CartSummaryResponse;
 import com.ecom.app.dto.ProductResponse;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed("ecom.service")
 public class CartService {
+    public static final int MAX_BATCH_LINES = 200;
+
     private final ProductRepository productRepository;
     private final CartItemRepository cartItemRepository;
     private final UserRepository userRepository;
-    public boolean addToCart(String userId, CartItemRequest request) {
-
-        Optional<Product> productOpt = productRepository.findById(request.getProductId());
-
-        if(productOpt.isEmpty()) return false;
+    private final CartSummaryRepository cartSummaryRepository;
+
+    /*
+        Every change to a user's cart starts by locking the user's
+        CartSummary row, then changes cart_items and the summary together.
+        The first change creates the row, under the lock of the user's row
+        so that concurrent first changes wait for it instead of inserting
+        it twice. Empty when the user does not exist.
+     */
+    public Optional<CartSummary> lockSummary(String userId) {
+        Long id = Long.valueOf(userId);
+        Optional<CartSummary> summary = cartSummaryRepository.findForUpdate(id);
+        if (summary.isPresent()) {
+            return summary;
+        }
+        if (cartSummaryRepository.lockUser(id).isEmpty()) {
+            return Optional.empty();
+        }
+        cartSummaryRepository.createIfMissing(id);
+        return cartSummaryRepository.findForUpdate(id);
+    }
 
-        Product product = productOpt.get();
-        if(product.getStockQuantity()< request.getQuantity()) return false;
+    public boolean addToCart(String userId, CartItemRequest request) {
+        if(request.getProductId() == null || request.getQuantity() == null || request.getQuantity() <= 0) return false;
+        Optional<CartSummary> summaryOpt = lockSummary(userId);
+        if(summaryOpt.isEmpty()) return false;
+        CartSummary summary = summaryOpt.get();
+
+        // product and stock are validated inside the upsert itself
+        if(cartItemRepository.upsertCartItem(
+                summary.getUserId(), request.getProductId(), request.getQuantity()) == 0) return false;
+
+        // the product comes from the second-level cache, the row id is only looked up for a new line
+        Product product = productRepository.findById(request.getProductId()).orElseThrow();
+        Optional<CartLine> existing = findLine(summary, product.getId());
+        int quantity = existing.map(CartLine::quantity).orElse(0) + request.getQuantity();
+        Long cartItemId = existing.map(CartLine::id).orElseGet(() -> cartItemRepository
+                .findIdByUserIdAndProductId(summary.getUserId(), product.getId()).orElseThrow());
+        putLine(summary, new CartLine(cartItemId, product.getId(), product.getName(), quantity,
+                BigDecimal.valueOf(product.getPrice()).multiply(BigDecimal.valueOf(quantity))));
+        return true;
+    }
 
+    /*
+        Applies a whole cart sync in one transaction: the user is read once,
+        products and the user's existing lines for them with one IN query
+        each, and the resulting inserts/updates are flushed as JDBC batches.
+        Lines are validated like addToCart and reported one by one.
+        Returns empty when the user does not exist.
+     */
+    public Optional<List<CartBatchLineResult>> addToCartBatch(String userId, List<CartItemRequest> requests) {
         Optional<User> userOpt = userRepository.findById(Long.valueOf(userId));
-
-        if(userOpt.isEmpty()) return false;
-
+        if(userOpt.isEmpty()) return Optional.empty();
         User user = userOpt.get();
-
-        CartItem existingCartItem = cartItemRepository.findByUserAndProduct(user,product);
-
-        if(existingCartItem != null){
-            // update the quantity
-            existingCartItem.setQuantity(existingCartItem.getQuantity()+ request.getQuantity());
-            existingCartItem.setPrice(BigDecimal.valueOf(product.getPrice()).multiply(BigDecimal.valueOf(existingCartItem.getQuantity())));
-            cartItemRepository.save(existingCartItem);
-        } else{
-            // create new cart item
-            CartItem cartItem = new CartItem();
-            cartItem.setUser(user);
-            cartItem.setProduct(product);
-            cartItem.setQuantity(request.getQuantity());
-            cartItem.setPrice(BigDecimal.valueOf(product.getPrice()).multiply(BigDecimal.valueOf(request.getQuantity())));
-            cartItemRepository.save(cartItem);
+        CartSummary summary = lockSummary(userId).orElseThrow();
+
+        List<Long> productIds = requests.stream()
+                .map(CartItemRequest::getProductId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, CartItem> cartItems = cartItemRepository.findByUserAndProductIdIn(user, productIds).stream()
+                .collect(Collectors.toMap(item -> item.getProduct().getId(), Function.identity()));
+
+        List<CartItem> newCartItems = new ArrayList<>();
+        Map<Long, CartItem> changedCartItems = new LinkedHashMap<>();
+        List<CartBatchLineResult> results = new ArrayList<>();
+        for (CartItemRequest request : requests) {
+            Product product = request.getProductId() == null ? null : products.get(request.getProductId());
+            String error = request.getQuantity() == null || request.getQuantity() <= 0 ? "Invalid quantity"
+                    : product == null ? "Product not found"
+                    : product.getStockQuantity() < request.getQuantity() ? "Product Out of Stock"
+                    : null;
+            if (error != null) {
+                results.add(new CartBatchLineResult(request.getProductId(), request.getQuantity(), false, error));
+                continue;
+            }
+
+            CartItem cartItem = cartItems.get(product.getId());
+            if (cartItem == null) {
+                cartItem = new CartItem();
+                cartItem.setUser(user);
+                cartItem.setProduct(product);
+                cartItem.setQuantity(request.getQuantity());
+                cartItems.put(product.getId(), cartItem);
+                newCartItems.add(cartItem);
+            } else {
+                cartItem.setQuantity(cartItem.getQuantity() + request.getQuantity());
+            }
+            cartItem.setPrice(BigDecimal.valueOf(product.getPrice()).multiply(BigDecimal.valueOf(cartItem.getQuantity())));
+            changedCartItems.put(product.getId(), cartItem);
+            results.add(new CartBatchLineResult(request.getProductId(), request.getQuantity(), true, "Added to cart"));
         }
-        return true;
+        // existing lines are flushed by dirty checking, new ones get their ids here
+        cartItemRepository.saveAll(newCartItems);
+        changedCartItems.values().forEach(item -> putLine(summary, new CartLine(item.getId(),
+                item.getProduct().getId(), item.getProduct().getName(), item.getQuantity(), item.getPrice())));
+        return Optional.of(results);
     }
 
     public boolean deleteFromCart(String userId, Long productId) {
-        Optional<Product> productOpt = productRepository.findById(productId);
-        Optional<User> userOpt = userRepository.findById(Long.valueOf(userId));
-
-        if (productOpt.isPresent() && userOpt.isPresent()){
-            cartItemRepository.deleteByUserAndProduct(userOpt.get(),productOpt.get());
-            return true;
-        }
-        return false;
+        Optional<CartSummary> summary = lockSummary(userId);
+        summary.flatMap(s -> findLine(s, productId)).ifPresent(line -> removeLine(summary.get(), line));
+        // the delete flushes the summary first
+        return cartItemRepository.deleteByUserIdAndProductId(Long.valueOf(userId), productId) > 0;
     }
 
     public List<CartItem> getCart(String userId){
-        return userRepository.findById(Long.valueOf(userId))
-                .map(cartItemRepository::findByUser)
-                .orElseGet(List::of);
+        return cartItemRepository.findWithUserByUserId(Long.valueOf(userId));
     }
 
+    // the lines as of the last cart change, read from the summary row alone
+    @Transactional(readOnly = true)
     public List<CartItemDTO> getAllProducts(String userId) {
-        return userRepository.findById(Long.valueOf(userId))
-                .map(user-> cartItemRepository.findByUser(user).stream()
-                        .map(item -> new CartItemDTO(item.getId(),item.getUser().getFirstName(), item.getProduct().getName(),item.getQuantity(),item.getPrice()))
+        return cartSummaryRepository.findById(Long.valueOf(userId))
+                .map(summary -> summary.getLines().stream()
+                        .map(line -> new CartItemDTO(line.id(), summary.getUserName(), line.productName(),
+                                line.quantity(), line.price()))
                         .collect(Collectors.toList()))
                 .orElseGet(List::of);
     }
 
+    @Transactional(readOnly = true)
+    public CartSummaryResponse getSummary(String userId) {
+        return cartSummaryRepository.findById(Long.valueOf(userId))
+                .map(summary -> new CartSummaryResponse(summary.getItemCount(), summary.getTotalAmount()))
+                .orElseGet(() -> new CartSummaryResponse(0, BigDecimal.ZERO));
+    }
+
+    // one UPDATE for the summary, one DELETE for the lines; the UPDATE takes the row lock
     public void clearCart(String userId) {
-        userRepository.findById(Long.valueOf(userId))
-                .ifPresent(cartItemRepository::deleteByUser
-                );
+        cartSummaryRepository.reset(Long.valueOf(userId));
+        cartItemRepository.deleteAllByUserId(Long.valueOf(userId));
+    }
+
+    private static Optional<CartLine> findLine(CartSummary summary, Long productId) {
+        return summary.getLines().stream()
+                .filter(line -> line.productId().equals(productId))
+                .findFirst();
+    }
+
+    // adds the line, or replaces the one for the same product, and moves the totals by the difference
+    private static void putLine(CartSummary summary, CartLine line) {
+        List<CartLine> lines = new ArrayList<>(summary.getLines());
+        int index = lines.indexOf(findLine(summary, line.productId()).orElse(null));
+        if (index >= 0) {
+            removeLine(summary, lines.get(index));
+            lines.set(index, line);
+        } else {
+            lines.add(line);
+        }
+        summary.setLines(lines);
+        summary.setItemCount(summary.getItemCount() + line.quantity());
+        summary.setTotalAmount(summary.getTotalAmount().add(line.price()));
+    }
+
+    private static void removeLine(CartSummary summary, CartLine line) {
+        List<CartLine> lines = new ArrayList<>(summary.getLines());
+        lines.remove(line);
+        summary.setLines(lines);
+        summary.setItemCount(summary.getItemCount() - line.quantity());
+        summary.setTotalAmount(summary.getTotalAmount().subtract(line.price()));
     }
 }
@@ -0,0 +1,42 @@
+package com.ecom.app.Service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    Version of everything the product read endpoints return, used as their
+    ETag. Productservice bumps it once a change has reached the caches and
+    the search index, so a client never gets a new tag with old data.
+    The boot epoch keeps tags handed out by an earlier run from matching.
+    Separately, a change count goes up before a change touches the caches,
+    so a cache fill can tell that its load may have missed one.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong changes = new AtomicLong();
+
+    public void startChange() {
+        changes.incrementAndGet();
+    }
+
+    public long changes() {
+        return changes.get();
+    }
+
+    public void bump() {
+        version.incrementAndGet();
+    }
+
+    /*
+        Strong ETag, quoted, for one representation (json, cbor, ...): the
+        JSON and the binary bodies of the same version are different bytes,
+        so they must not share a strong tag.
+     */
+    public String etag(String representation) {
+        return "\"" + epoch + "-" + version.get() + "-" + representation + "\"";
+    }
+}
@@ -0,0 +1,161 @@
+package com.ecom.app.Service;
+
+import com.ecom.app.Repository.ProductRepository;
+import com.ecom.app.dto.CategoryFacet;
+import com.ecom.app.dto.ProductResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+    Live per-category counts of the active catalog, for navigation.
+    -   Built once from the products table, then moved product by product
+        from the ProductChangedEvent and StockReservedEvent payloads: no
+        write ever triggers a query here.
+    -   Each product's last known category, price and stock is kept, so a
+        change can be taken out of its old category before it is added to
+        the new one.
+    -   Prices are kept as a sorted multiset per category, so the range
+        stays exact when the cheapest or dearest product goes away.
+    -   Categories are compared as stored; products without a category
+        are in no facet.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryFacets {
+
+    private final ProductRepository productRepository;
+
+    private final Map<Long, Counted> products = new HashMap<>();
+    private final Map<String, Facet> facets = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record Counted(String category, Integer price, int stock) {
+        Counted withStock(int stock) {
+            return new Counted(category, price, stock);
+        }
+    }
+
+    private static final class Facet {
+        int productCount;
+        int inStockCount;
+        final TreeMap<Integer, Integer> prices = new TreeMap<>();
+    }
+
+    // from the primary, like the search index
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        List<ProductResponse> active = productRepository.findActiveProductResponses();
+        lock.writeLock().lock();
+        try {
+            products.clear();
+            facets.clear();
+            active.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Category facets built with {} categories", facets.size());
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductResponse product = event.product();
+        lock.writeLock().lock();
+        try {
+            remove(product.getId());
+            if (Boolean.TRUE.equals(product.getActive())) {
+                add(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ahead of Productservice, which bumps the catalog version
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void onStockReserved(StockReservedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.quantities().forEach((id, quantity) -> {
+                Counted counted = remove(id);
+                if (counted != null) {
+                    add(id, counted.withStock(counted.stock() - quantity));
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // by category name
+    public List<CategoryFacet> facets() {
+        lock.readLock().lock();
+        try {
+            return facets.entrySet().stream()
+                    .map(entry -> {
+                        Facet facet = entry.getValue();
+                        return new CategoryFacet(entry.getKey(), facet.productCount, facet.inStockCount,
+                                facet.prices.isEmpty() ? null : facet.prices.firstKey(),
+                                facet.prices.isEmpty() ? null : facet.prices.lastKey());
+                    })
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(ProductResponse product) {
+        Integer stock = product.getStockQuantity();
+        add(product.getId(), new Counted(product.getCategory(), product.getPrice(), stock == null ? 0 : stock));
+    }
+
+    private void add(Long id, Counted counted) {
+        products.put(id, counted);
+        if (counted.category() == null) {
+            return;
+        }
+        Facet facet = facets.computeIfAbsent(counted.category(), key -> new Facet());
+        facet.productCount++;
+        if (counted.stock() > 0) {
+            facet.inStockCount++;
+        }
+        if (counted.price() != null) {
+            facet.prices.merge(counted.price(), 1, Integer::sum);
+        }
+    }
+
+    private Counted remove(Long id) {
+        Counted counted = products.remove(id);
+        if (counted == null || counted.category() == null) {
+            return counted;
+        }
+        Facet facet = facets.get(counted.category());
+        if (--facet.productCount == 0) {
+            facets.remove(counted.category());
+            return counted;
+        }
+        if (counted.stock() > 0) {
+            facet.inStockCount--;
+        }
+        if (counted.price() != null) {
+            facet.prices.computeIfPresent(counted.price(), (price, count) -> count == 1 ? null : count - 1);
+        }
+        return counted;
+    }
+}
@@ -0,0 +1,140 @@
+package com.ecom.app.Service;
+
+import com.ecom.app.Config.HotStockProperties;
+import com.ecom.app.Repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Keeps the stock of hot (flagged) products in memory.
+    -   Reservations are taken from a StripedStockCounter; they are given
+        back if the reserving transaction rolls back, and added to the
+        unflushed total once it commits.
+    -   flush() periodically subtracts the unflushed totals from the
+        products table in one transaction.
+    -   Counters are loaded from the database on startup, or on first use
+        for flagged products created later. Reservations
+        committed since the last flush are lost if the process dies, so the
+        flush interval bounds how far the table can lag behind.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotStockRegistry {
+
+    private final HotStockProperties properties;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, HotProduct> products = new ConcurrentHashMap<>();
+
+    private record HotProduct(StripedStockCounter counter, LongAdder unflushed) {
+    }
+
+    @PostConstruct
+    public void reconcile() {
+        if (!properties.isEnabled() || properties.getProductIds().isEmpty()) {
+            return;
+        }
+        productRepository.findAllById(properties.getProductIds()).forEach(product ->
+                products.put(product.getId(), newHotProduct(product.getStockQuantity())));
+        log.info("Hot-SKU stock mode enabled for products {}", properties.getProductIds());
+    }
+
+    public boolean isHot(Long productId) {
+        return properties.isEnabled() && properties.getProductIds().contains(productId);
+    }
+
+    public long available(Long productId) {
+        HotProduct product = load(productId);
+        return product == null ? 0 : product.counter().available();
+    }
+
+    // must run inside a transaction, its outcome decides whether the quantity is kept
+    public boolean reserve(Long productId, int quantity) {
+        HotProduct product = load(productId);
+        if (product == null || !product.counter().tryTake(quantity)) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    product.unflushed().add(quantity);
+                } else {
+                    product.counter().release(quantity);
+                }
+            }
+        });
+        return true;
+    }
+
+    private HotProduct load(Long productId) {
+        if (!isHot(productId)) {
+            return null;
+        }
+        return products.computeIfAbsent(productId, id -> productRepository.findById(id)
+                .map(product -> newHotProduct(product.getStockQuantity()))
+                .orElse(null));
+    }
+
+    private HotProduct newHotProduct(Integer stock) {
+        return new HotProduct(new StripedStockCounter(properties.getStripes(), stock == null ? 0 : stock), new LongAdder());
+    }
+
+    /*
+        An admin stock update moves the counter by the same amount it moved
+        the stock column, through the counter's CAS path: reservations that
+        are running, unflushed or being flushed stay counted exactly once.
+     */
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        HotProduct product = products.get(event.product().getId());
+        if (product != null && event.stockChange() != 0) {
+            product.counter().adjust(event.stockChange());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "#{@hotStockProperties.flushInterval.toMillis()}")
+    public void flush() {
+        Map<Long, Integer> deltas = new TreeMap<>();
+        products.forEach((id, product) -> {
+            long unflushed = product.unflushed().sumThenReset();
+            if (unflushed != 0) {
+                deltas.put(id, (int) unflushed);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    deltas.forEach((id, quantity) -> productRepository.subtractStock(id, quantity)));
+        } catch (RuntimeException e) {
+            deltas.forEach((id, quantity) -> products.get(id).unflushed().add(quantity));
+            log.warn("Hot-SKU stock flush failed, will retry", e);
+            return;
+        }
+        eventPublisher.publishEvent(new StockFlushedEvent(deltas.keySet()));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecom.app.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+/*
+    Opaque cursor for keyset pagination: the last id of the previous page,
+    base64url encoded so clients pass it back without interpreting it.
+ */
+final class KeysetCursor {
+
+    private KeysetCursor() {
+    }
+
+    static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // empty when the cursor cannot be decoded
+    static Optional<Long> decode(String cursor) {
+        try {
+            return Optional.of(Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
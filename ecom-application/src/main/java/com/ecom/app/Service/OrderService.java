@@ -5,47 +5,139 @@ import com.ecom.app.Repository.OrderRepository;
 import com.ecom.app.Repository.UserRepository;
 import com.ecom.app.dto.OrderItemDTO;
 import com.ecom.app.dto.OrderResponse;
+import com.ecom.app.dto.OrderSubmission;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed("ecom.service")
 public class OrderService {
 
     private final CartService cartService;
-    private final UserRepository userRepository;
     private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final StockReservationService stockReservationService;
 
+    @Transactional
     public Optional<OrderResponse> createOrder(String userId) {
-        // validate for cart items
+        // the summary lock keeps the cart from changing while it is turned into the order
+        Optional<CartSummary> summary = cartService.lockSummary(userId);
+        if(summary.isEmpty() || summary.get().getItemCount() == 0){
+            return Optional.empty();
+        }
+        // cart items loaded together with the user, products from the second-level cache
         List<CartItem> cartItems = cartService.getCart(userId);
-        if(cartItems.isEmpty()){
+        Order order = new Order();
+        order.setUser(cartItems.get(0).getUser());
+        if(!fillOrder(order, cartItems, summary.get().getTotalAmount())){
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return Optional.empty();
         }
-        // Validate for user
+        Order savedOrder = orderRepository.save(order);
+        // clear the cart
+        cartService.clearCart(userId);
+        
+        return Optional.of(mapToOrderResponse(savedOrder));
+    }
 
-        Optional<User> userOptional = userRepository.findById(Long.valueOf(userId));
-        if(userOptional.isEmpty()){
+    /*
+        Async checkout, first half: only records a PENDING order for a user
+        with a non-empty cart. Stock, lines and the cart are handled later
+        by completeOrder on a worker thread.
+        A user has at most one PENDING order: while one is waiting it is
+        returned instead, flagged as already pending. The summary lock
+        keeps two submissions of the same user from both recording one.
+     */
+    @Transactional
+    public Optional<OrderSubmission> submitOrder(String userId) {
+        Optional<CartSummary> summary = cartService.lockSummary(userId);
+        if(summary.isEmpty()){
+            return Optional.empty();
+        }
+        Optional<Order> pending = orderRepository.findFirstByUserIdAndStatus(Long.valueOf(userId), OrderStatus.PENDING);
+        if(pending.isPresent()){
+            return Optional.of(new OrderSubmission(mapToOrderResponse(pending.get()), true));
+        }
+        if(summary.get().getItemCount() == 0){
             return Optional.empty();
         }
-        User user = userOptional.get();
-        // calculate total price
+        Order order = new Order();
+        order.setUser(userRepository.getReferenceById(Long.valueOf(userId)));
+        order.setStatus(OrderStatus.PENDING);
+        return Optional.of(new OrderSubmission(mapToOrderResponse(orderRepository.save(order)), false));
+    }
 
-        BigDecimal totalPrice = cartItems.stream()
-                .map(CartItem::getPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    /*
+        Async checkout, second half: turns a PENDING order into a CONFIRMED
+        one from the cart as it is now. Returns false, with nothing changed,
+        when the cart is empty or a product is short; the caller then
+        cancels the order. Orders that are no longer PENDING are left alone.
+     */
+    @Transactional
+    public boolean completeOrder(Long orderId) {
+        Optional<Order> orderOpt = orderRepository.findById(orderId);
+        if(orderOpt.isEmpty() || orderOpt.get().getStatus() != OrderStatus.PENDING){
+            return true;
+        }
+        Order order = orderOpt.get();
+        String userId = order.getUser().getId().toString();
+        CartSummary summary = cartService.lockSummary(userId).orElseThrow();
+        List<CartItem> cartItems = summary.getItemCount() == 0 ? List.of() : cartService.getCart(userId);
+        if(cartItems.isEmpty() || !fillOrder(order, cartItems, summary.getTotalAmount())){
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return false;
+        }
+        orderRepository.save(order);
+        cartService.clearCart(userId);
+        return true;
+    }
+
+    @Transactional
+    public void cancelOrder(Long orderId) {
+        orderRepository.findById(orderId)
+                .filter(order -> order.getStatus() == OrderStatus.PENDING)
+                .ifPresent(order -> order.setStatus(OrderStatus.CANCELLED));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<OrderResponse> getOrder(Long orderId, String userId) {
+        return orderRepository.findWithItemsByIdAndUserId(orderId, Long.valueOf(userId))
+                .map(OrderService::mapToOrderResponse);
+    }
+
+    // from the primary, a lagging replica could miss an order submitted just before a restart
+    @Transactional
+    public List<Long> findPendingOrderIds() {
+        return orderRepository.findIdsByStatus(OrderStatus.PENDING);
+    }
 
+    /*
+        Reserves the stock for the cart lines and copies them into the order,
+        with the total kept by the cart summary.
+        Returns false when any product is short, in which case no stock
+        has been taken.
+     */
+    private boolean fillOrder(Order order, List<CartItem> cartItems, BigDecimal totalAmount) {
+        // take the stock, the whole order fails if any product is short
+        Map<Long, Integer> quantities = cartItems.stream()
+                .collect(Collectors.toMap(item -> item.getProduct().getId(), CartItem::getQuantity, Integer::sum));
+        if(!stockReservationService.reserve(quantities)){
+            return false;
+        }
         // create order
-        Order order = new Order();
-        order.setUser(user);
         order.setStatus(OrderStatus.CONFIRMED);
-        order.setTotalAmount(totalPrice);
+        order.setTotalAmount(totalAmount);
         List<OrderItem> orderItems = cartItems.stream()
                         .map(item -> new OrderItem(
                                 null,
@@ -55,15 +147,11 @@ public class OrderService {
                                 order
                         ))
                                 .collect(Collectors.toList());
-        order.setItems(orderItems);
-        Order savedOrder = orderRepository.save(order);
-        // clear the cart
-        cartService.clearCart(userId);
-        
-        return Optional.of(mapToOrderResponse(savedOrder));
+        order.getItems().addAll(orderItems);
+        return true;
     }
 
-    private OrderResponse mapToOrderResponse(Order order) {
+    public static OrderResponse mapToOrderResponse(Order order) {
         return new OrderResponse(
                 order.getId(),
                 order.getTotalAmount(),
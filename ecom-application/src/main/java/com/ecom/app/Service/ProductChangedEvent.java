@@ -0,0 +1,13 @@
+package com.ecom.app.Service;
+
+import com.ecom.app.dto.ProductResponse;
+
+/*
+    Published by Productservice after a product is created, updated or
+    soft deleted. The payload is the state of the product after the
+    change, so listeners never have to go back to the database, and by
+    how much the change moved the stock column (the whole stock for a new
+    product, 0 when the stock was not touched).
+ */
+public record ProductChangedEvent(ProductResponse product, int stockChange) {
+}
@@ -0,0 +1,317 @@
+package com.ecom.app.Service;
+
+import com.ecom.app.Config.ProductImportProperties;
+import com.ecom.app.Models.Product;
+import com.ecom.app.dto.ImportReport;
+import com.ecom.app.dto.ProductRequest;
+import com.ecom.app.dto.ProductResponse;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    Bulk product import from CSV (header row, ProductRequest columns) or
+    NDJSON (one ProductRequest per line).
+    -   The upload is parsed row by row as it arrives, only the rows of the
+        current transaction are held in memory.
+    -   Valid rows are persisted ecom.import.commit-interval at a time,
+        each transaction sending JDBC batches of ecom.import.batch-size
+        and flushing and clearing the persistence context after each one.
+        The second-level cache is bypassed: imported products are loaded
+        into it on first use, like any other.
+    -   Rejected rows (unreadable, invalid, or part of a transaction that
+        failed) go to a CSV error file with their row number; a row that
+        cannot even be parsed out of the stream ends the import.
+    -   After each commit the new products reach the caches, search index
+        and facets like any created product, with a single catalog version
+        bump.
+    -   Progress of running and recent imports is kept for
+        ecom.import.retention, ecom.import.rows counts rows by outcome.
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private static final CsvSchema ERROR_SCHEMA = CsvSchema.builder()
+            .addColumn("row")
+            .addColumn("error")
+            .setUseHeader(true)
+            .build();
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Productservice productservice;
+    private final ProductImportProperties properties;
+    private final ObjectMapper jsonMapper;
+    private final CsvMapper csvMapper = CsvMapper.builder()
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+    private final Cache<String, ProductImport> imports;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+
+    public ProductImportService(EntityManager entityManager, TransactionTemplate transactionTemplate,
+                                Productservice productservice, ProductImportProperties properties,
+                                ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.productservice = productservice;
+        this.properties = properties;
+        this.jsonMapper = objectMapper.copy().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.imports = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumImports())
+                .expireAfterWrite(properties.getRetention())
+                .<String, ProductImport>removalListener((id, productImport, cause) -> productImport.deleteErrorFile())
+                .build();
+        this.importedRows = Counter.builder("ecom.import.rows").tag("outcome", "imported").register(meterRegistry);
+        this.rejectedRows = Counter.builder("ecom.import.rows").tag("outcome", "rejected").register(meterRegistry);
+    }
+
+    public ImportReport importCsv(InputStream body) {
+        return run(() -> csvMapper.readerFor(ProductRequest.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(body));
+    }
+
+    public ImportReport importNdjson(InputStream body) {
+        return run(() -> jsonMapper.readerFor(ProductRequest.class).readValues(body));
+    }
+
+    // running imports first, then the most recent
+    public List<ImportReport> getImports() {
+        return imports.asMap().values().stream()
+                .sorted(Comparator.comparing((ProductImport productImport) -> productImport.status != Status.RUNNING)
+                        .thenComparing(productImport -> productImport.startedAt, Comparator.reverseOrder()))
+                .map(ProductImport::toReport)
+                .toList();
+    }
+
+    public Optional<ImportReport> getImport(String id) {
+        return Optional.ofNullable(imports.getIfPresent(id)).map(ProductImport::toReport);
+    }
+
+    // empty while nothing was rejected, or once the import is forgotten
+    public Optional<Path> getErrorFile(String id) {
+        return Optional.ofNullable(imports.getIfPresent(id))
+                .map(productImport -> productImport.errorFile)
+                .filter(Files::exists);
+    }
+
+    private interface RowSource {
+        MappingIterator<ProductRequest> open() throws IOException;
+    }
+
+    private ImportReport run(RowSource source) {
+        ProductImport productImport = new ProductImport(UUID.randomUUID().toString(),
+                properties.getErrorDirectory());
+        imports.put(productImport.id, productImport);
+        try (MappingIterator<ProductRequest> rows = source.open()) {
+            productImport.status = importRows(productImport, rows) ? Status.COMPLETED : Status.FAILED;
+        } catch (IOException e) {
+            reject(productImport, 1, "unreadable input: " + e.getMessage());
+            productImport.status = Status.FAILED;
+        } finally {
+            productImport.finish();
+        }
+        log.info("Product import {} {}: {} imported, {} rejected", productImport.id, productImport.status,
+                productImport.imported.get(), productImport.rejected.get());
+        return productImport.toReport();
+    }
+
+    // false when the input broke off before its end
+    private boolean importRows(ProductImport productImport, MappingIterator<ProductRequest> rows) {
+        List<Long> rowNumbers = new ArrayList<>(properties.getCommitInterval());
+        List<Product> products = new ArrayList<>(properties.getCommitInterval());
+        long row = 1;
+        try {
+            for (; rows.hasNextValue(); row++) {
+                productImport.rowsRead.set(row);
+                ProductRequest request;
+                try {
+                    request = rows.nextValue();
+                } catch (DatabindException e) {
+                    // a value of the wrong type, the iterator moves on to the next row
+                    reject(productImport, row, e.getOriginalMessage());
+                    continue;
+                }
+                Optional<String> problem = validate(request);
+                if (problem.isPresent()) {
+                    reject(productImport, row, problem.get());
+                    continue;
+                }
+                rowNumbers.add(row);
+                products.add(toProduct(request));
+                if (products.size() == properties.getCommitInterval()) {
+                    save(productImport, rowNumbers, products);
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            // the stream itself is broken (bad JSON, unbalanced CSV quotes, client gone)
+            reject(productImport, row, "unreadable input, import stopped: " + e.getMessage());
+            return false;
+        } finally {
+            // the rows read before the input broke off are still saved
+            if (!products.isEmpty()) {
+                save(productImport, rowNumbers, products);
+            }
+        }
+    }
+
+    private void save(ProductImport productImport, List<Long> rowNumbers, List<Product> products) {
+        try {
+            List<ProductResponse> saved = transactionTemplate.execute(status -> persist(products));
+            productservice.publishImported(saved);
+            productImport.imported.addAndGet(saved.size());
+            importedRows.increment(saved.size());
+        } catch (RuntimeException e) {
+            log.warn("Product import {} could not save rows {} to {}", productImport.id,
+                    rowNumbers.get(0), rowNumbers.get(rowNumbers.size() - 1), e);
+            rowNumbers.forEach(row -> reject(productImport, row, "not saved: " + e.getMessage()));
+        }
+        rowNumbers.clear();
+        products.clear();
+    }
+
+    private List<ProductResponse> persist(List<Product> products) {
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(properties.getBatchSize());
+        session.setCacheMode(CacheMode.IGNORE);
+        List<ProductResponse> saved = new ArrayList<>(products.size());
+        for (Product product : products) {
+            entityManager.persist(product);
+            saved.add(Productservice.mapToProductResponse(product));
+            if (saved.size() % properties.getBatchSize() == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return saved;
+    }
+
+    private void reject(ProductImport productImport, long row, String message) {
+        productImport.reject(row, message);
+        rejectedRows.increment();
+    }
+
+    // empty when the row can be imported
+    static Optional<String> validate(ProductRequest request) {
+        if (request.getName() == null || request.getName().isBlank()) {
+            return Optional.of("name is required");
+        }
+        if (request.getPrice() == null || request.getPrice() < 0) {
+            return Optional.of("price is required and cannot be negative");
+        }
+        if (request.getStockQuantity() != null && request.getStockQuantity() < 0) {
+            return Optional.of("stockQuantity cannot be negative");
+        }
+        for (String text : new String[]{request.getName(), request.getDescription(),
+                request.getCategory(), request.getImageUrl()}) {
+            if (text != null && text.length() > 255) {
+                return Optional.of("text longer than 255 characters");
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Product toProduct(ProductRequest request) {
+        Product product = new Product();
+        product.setName(request.getName());
+        product.setDescription(request.getDescription());
+        product.setPrice(request.getPrice());
+        product.setStockQuantity(request.getStockQuantity() == null ? 0 : request.getStockQuantity());
+        product.setCategory(request.getCategory());
+        product.setImageUrl(request.getImageUrl());
+        return product;
+    }
+
+    // one import, updated by the thread running it and read by anyone asking for progress
+    private final class ProductImport {
+        final String id;
+        final Path errorFile;
+        final Instant startedAt = Instant.now();
+        final AtomicLong rowsRead = new AtomicLong();
+        final AtomicLong imported = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        volatile Status status = Status.RUNNING;
+        volatile Instant finishedAt;
+        private SequenceWriter errors;
+
+        ProductImport(String id, Path errorDirectory) {
+            this.id = id;
+            this.errorFile = errorDirectory.resolve(id + "-errors.csv");
+        }
+
+        void reject(long row, String message) {
+            rejected.incrementAndGet();
+            try {
+                if (errors == null) {
+                    Files.createDirectories(errorFile.getParent());
+                    errors = csvMapper.writer(ERROR_SCHEMA).writeValues(errorFile.toFile());
+                }
+                errors.write(new Object[]{row, message});
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() {
+            finishedAt = Instant.now();
+            if (errors != null) {
+                try {
+                    errors.close();
+                } catch (IOException e) {
+                    log.warn("Could not close the error file of product import {}", id, e);
+                }
+            }
+        }
+
+        void deleteErrorFile() {
+            try {
+                Files.deleteIfExists(errorFile);
+            } catch (IOException e) {
+                log.warn("Could not delete {}", errorFile, e);
+            }
+        }
+
+        ImportReport toReport() {
+            return new ImportReport(id, status.name(), rowsRead.get(), imported.get(), rejected.get(),
+                    startedAt, finishedAt,
+                    rejected.get() == 0 ? null : "/api/products/imports/" + id + "/errors");
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.ecom.app.Service;
+
+import com.ecom.app.Repository.ProductRepository;
+import com.ecom.app.dto.ProductResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+    In-memory inverted index over product name, category and description.
+    -   Every word is broken into 2- and 3-character grams, and each gram
+        points to the ids of the products containing it.
+    -   A query word of length >= 3 is looked up by intersecting the posting
+        lists of its trigrams, so the cost depends on how many products match
+        and not on the size of the catalog. Candidates are then verified
+        with a substring check, which removes false positives.
+    -   Only active products are kept in the index.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    static final int MIN_TOKEN_LENGTH = 2;
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final ProductRepository productRepository;
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, IndexedProduct> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    private record IndexedProduct(ProductResponse product, String name, String category,
+                                  String description, Set<String> grams) {
+        IndexedProduct withProduct(ProductResponse product) {
+            return new IndexedProduct(product, name, category, description, grams);
+        }
+    }
+
+    // from the primary, the index is kept up to date from the change events only
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        List<ProductResponse> products = productRepository.findActiveProductResponses();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            products.forEach(this::add);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product search index built with {} products and {} grams", documents.size(), postings.size());
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductResponse product = event.product();
+        lock.writeLock().lock();
+        try {
+            remove(product.getId());
+            if (Boolean.TRUE.equals(product.getActive())) {
+                add(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ahead of Productservice, which bumps the catalog version
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void onStockReserved(StockReservedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.quantities().forEach((id, quantity) -> {
+                IndexedProduct doc = documents.get(id);
+                if (doc != null) {
+                    ProductResponse product = doc.product();
+                    documents.put(id, doc.withProduct(product.toBuilder()
+                            .stockQuantity(product.getStockQuantity() - quantity)
+                            .build()));
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /*
+        Returns in-stock products matching every word of the keyword,
+        best matches first. Words shorter than MIN_TOKEN_LENGTH are ignored.
+     */
+    public List<ProductResponse> search(String keyword) {
+        List<String> terms = tokenize(keyword);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = null;
+            for (String term : terms) {
+                candidates = intersect(candidates, lookup(term));
+                if (candidates.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Map.Entry<ProductResponse, Integer>> hits = new ArrayList<>();
+            for (Long id : candidates) {
+                IndexedProduct doc = documents.get(id);
+                Integer stock = doc.product().getStockQuantity();
+                if (stock == null || stock <= 0) {
+                    continue;
+                }
+                int score = score(doc, terms);
+                if (score > 0) {
+                    hits.add(Map.entry(doc.product(), score));
+                }
+            }
+            hits.sort(Map.Entry.<ProductResponse, Integer>comparingByValue().reversed()
+                    .thenComparing(hit -> hit.getKey().getId()));
+            return hits.stream().map(Map.Entry::getKey).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(ProductResponse product) {
+        IndexedProduct doc = new IndexedProduct(product,
+                normalize(product.getName()),
+                normalize(product.getCategory()),
+                normalize(product.getDescription()),
+                new HashSet<>());
+        for (String field : List.of(doc.name(), doc.category(), doc.description())) {
+            for (String token : tokenize(field)) {
+                doc.grams().addAll(grams(token));
+            }
+        }
+        doc.grams().forEach(gram -> postings.computeIfAbsent(gram, key -> new HashSet<>()).add(product.getId()));
+        documents.put(product.getId(), doc);
+    }
+
+    private void remove(Long id) {
+        IndexedProduct doc = documents.remove(id);
+        if (doc == null) {
+            return;
+        }
+        for (String gram : doc.grams()) {
+            Set<Long> ids = postings.get(gram);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private Set<Long> lookup(String term) {
+        if (term.length() == MIN_TOKEN_LENGTH) {
+            return postings.getOrDefault(term, Set.of());
+        }
+        Set<Long> result = null;
+        for (String gram : trigrams(term)) {
+            result = intersect(result, postings.getOrDefault(gram, Set.of()));
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static Set<Long> intersect(Set<Long> current, Set<Long> next) {
+        if (current == null) {
+            return next;
+        }
+        Set<Long> smaller = current.size() <= next.size() ? current : next;
+        Set<Long> larger = smaller == current ? next : current;
+        Set<Long> result = new HashSet<>();
+        for (Long id : smaller) {
+            if (larger.contains(id)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private static int score(IndexedProduct doc, List<String> terms) {
+        int total = 0;
+        for (String term : terms) {
+            int termScore = fieldScore(doc.name(), term, NAME_WEIGHT)
+                    + fieldScore(doc.category(), term, CATEGORY_WEIGHT)
+                    + fieldScore(doc.description(), term, DESCRIPTION_WEIGHT);
+            if (termScore == 0) {
+                // gram match without a real substring match
+                return 0;
+            }
+            total += termScore;
+        }
+        return total;
+    }
+
+    private static int fieldScore(String field, String term, int weight) {
+        if (!field.contains(term)) {
+            return 0;
+        }
+        // whole word matches rank above partial matches
+        return tokenize(field).contains(term) ? weight * 2 : weight;
+    }
+
+    private static Set<String> grams(String token) {
+        Set<String> grams = new HashSet<>();
+        for (int size = MIN_TOKEN_LENGTH; size <= 3; size++) {
+            for (int i = 0; i + size <= token.length(); i++) {
+                grams.add(token.substring(i, i + size));
+            }
+        }
+        return grams;
+    }
+
+    private static List<String> trigrams(String token) {
+        List<String> grams = new ArrayList<>();
+        for (int i = 0; i + 3 <= token.length(); i++) {
+            grams.add(token.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : normalize(text).split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,41 +1,203 @@
 package com.ecom.app.Service;
 
+import com.ecom.app.Config.ReadOnPrimary;
 import com.ecom.app.Models.Product;
 import com.ecom.app.Repository.ProductRepository;
+import com.ecom.app.dto.CategoryFacet;
+import com.ecom.app.dto.PageResponse;
 import com.ecom.app.dto.ProductRequest;
 import com.ecom.app.dto.ProductResponse;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Timed("ecom.service")
 public class Productservice {
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final ProductRepository productRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final CacheManager cacheManager;
+    private final CatalogVersion catalogVersion;
+    private final CategoryFacets categoryFacets;
+
     public ProductResponse createProduct(ProductRequest productRequest) {
         Product product = new Product();
         updateProductFromRequest(product,productRequest);
         Product savedProduct = productRepository.save(product);
-        return mapToProductResponse(savedProduct);
+        return publishChange(savedProduct, stockOf(savedProduct));
     }
+    // cache fills read the primary: a list read from a lagging replica would stay cached after the replica caught up
+    @ReadOnPrimary
+    @Transactional(readOnly = true)
     public List<ProductResponse> getAllProducts() {
-        return productRepository.findByActiveTrue().stream()
-                .map(this::mapToProductResponse)
-                .collect(Collectors.toList());
+        return readThrough("products", SimpleKey.EMPTY, productRepository::findActiveProductResponses);
+    }
+
+    // one category through the (category, id) index, cached next to the full list
+    @ReadOnPrimary
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getProductsInCategory(String category) {
+        return readThrough("products", category,
+                () -> productRepository.findActiveProductResponsesByCategory(category));
+    }
+
+    public List<CategoryFacet> getCategoryFacets() {
+        return categoryFacets.facets();
     }
+
+    /*
+        Keyset pagination on id: the cursor is the last id of the previous
+        page, so every page is an index range scan whatever its position.
+        Returns empty when the cursor cannot be decoded. With a category the
+        range is taken from the (category, id) index instead.
+        Read on the primary: the page goes out under the catalog version's
+        ETag, which a lagging replica's rows may not match yet.
+     */
+    @ReadOnPrimary
+    @Transactional(readOnly = true)
+    public Optional<PageResponse<ProductResponse>> getProductPage(String cursor, int limit, String category) {
+        Optional<Long> afterId = cursor == null ? Optional.of(0L) : KeysetCursor.decode(cursor);
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        return afterId.map(id -> {
+            // read one row more than asked to know whether there is a next page
+            List<Product> products = category == null
+                    ? productRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(id, Limit.of(pageSize + 1))
+                    : productRepository.findByActiveTrueAndCategoryAndIdGreaterThanOrderByIdAsc(
+                            category, id, Limit.of(pageSize + 1));
+            boolean hasNext = products.size() > pageSize;
+            List<ProductResponse> items = products.stream()
+                    .limit(pageSize)
+                    .map(Productservice::mapToProductResponse)
+                    .toList();
+            String next = hasNext ? KeysetCursor.encode(items.get(items.size() - 1).getId()) : null;
+            return new PageResponse<>(items, next);
+        });
+    }
+
+    /*
+        Hands every active product to the consumer, in id order, straight
+        from the JDBC cursor. Each entity is detached once mapped so the
+        persistence context stays empty however large the catalog is.
+     */
+    @Transactional(readOnly = true)
+    public void streamActiveProducts(Consumer<ProductResponse> consumer) {
+        try (Stream<Product> products = productRepository.streamByActiveTrue()) {
+            products.forEach(product -> {
+                consumer.accept(mapToProductResponse(product));
+                entityManager.detach(product);
+            });
+        }
+    }
+
+    /*
+        The row is locked while it is read, so the stock change handed to
+        the listeners is measured against the stock as it is in the table,
+        not as a concurrent hot-SKU flush or a cached entity left it.
+     */
+    @Transactional
     public Optional<ProductResponse> updateProduct(ProductRequest productRequest, Long id) {
-        return productRepository.findById(id)
+        return productRepository.findForUpdate(id)
                 .map(existingProduct -> {
+                    int previousStock = stockOf(existingProduct);
                     updateProductFromRequest(existingProduct, productRequest);
                     Product savedProduct = productRepository.save(existingProduct);
-                    return mapToProductResponse(savedProduct);
+                    return publishChange(savedProduct, stockOf(savedProduct) - previousStock);
                 });
     }
 
-    private ProductResponse mapToProductResponse(Product savedProduct) {
+    // stock is part of the cached responses; the stock updates evict the cached entities themselves
+    @TransactionalEventListener
+    public void onStockReserved(StockReservedEvent event) {
+        catalogVersion.startChange();
+        Cache productCache = cacheManager.getCache("product");
+        event.quantities().keySet().forEach(productCache::evict);
+        cacheManager.getCache("products").clear();
+        catalogVersion.bump();
+    }
+
+    @EventListener
+    public void onStockFlushed(StockFlushedEvent event) {
+        catalogVersion.startChange();
+        Cache productCache = cacheManager.getCache("product");
+        event.productIds().forEach(productCache::evict);
+        cacheManager.getCache("products").clear();
+        catalogVersion.bump();
+    }
+
+    /*
+        Caches first, then the listeners (search index), then the catalog
+        version, so no ETag is handed out for data that is not visible yet.
+        Inside a transaction all of it waits for the commit, or a cache
+        miss in between would load the old row again.
+     */
+    private ProductResponse publishChange(Product product, int stockChange) {
+        ProductResponse response = mapToProductResponse(product);
+        afterCommit(() -> {
+            catalogVersion.startChange();
+            Cache productCache = cacheManager.getCache("product");
+            if (Boolean.TRUE.equals(response.getActive())) {
+                productCache.put(response.getId(), response);
+            } else {
+                productCache.evict(response.getId());
+            }
+            cacheManager.getCache("products").clear();
+            eventPublisher.publishEvent(new ProductChangedEvent(response, stockChange));
+            catalogVersion.bump();
+        });
+        return response;
+    }
+
+    /*
+        Bulk counterpart of publishChange for products that were just
+        inserted, after their commit: nothing of them is cached yet, so only
+        the listeners hear about each one, then the list cache and the
+        catalog version change once.
+     */
+    public void publishImported(List<ProductResponse> products) {
+        catalogVersion.startChange();
+        products.forEach(product -> eventPublisher.publishEvent(
+                new ProductChangedEvent(product, product.getStockQuantity() == null ? 0 : product.getStockQuantity())));
+        cacheManager.getCache("products").clear();
+        catalogVersion.bump();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    public static ProductResponse mapToProductResponse(Product savedProduct) {
         ProductResponse response = new ProductResponse();
         response.setId(savedProduct.getId());
         response.setName(savedProduct.getName());
@@ -49,6 +211,10 @@ public class Productservice {
         return response;
     }
 
+    private static int stockOf(Product product) {
+        return product.getStockQuantity() == null ? 0 : product.getStockQuantity();
+    }
+
     private void updateProductFromRequest(Product product, ProductRequest productRequest) {
         product.setName(productRequest.getName());
         product.setPrice(productRequest.getPrice());
@@ -58,23 +224,72 @@ public class Productservice {
         product.setCategory(productRequest.getCategory());
     }
 
+    /*
+        Only the active flag is written (Product has dynamic updates), and
+        the row is read locked like in updateProduct, so neither the table
+        nor the cache gets back a stock that a checkout has since changed.
+     */
+    @Transactional
     public boolean deleteProduct(Long id) {
-        return productRepository.findById(id)
+        return productRepository.findForUpdate(id)
                 .map(product -> {
                     product.setActive(false);
-                    productRepository.save(product);
+                    publishChange(productRepository.save(product), 0);
                     return true;
                 }).orElse(false);
     }
 
-    public List<ProductResponse> searchProducts(String keyword) {
-        return productRepository.searchProducts(keyword).stream()
-                .map(this::mapToProductResponse)
+    // on the primary, like the page: the results are tagged with the catalog version
+    @ReadOnPrimary
+    @Transactional(readOnly = true)
+    public List<ProductResponse> searchProducts(String keyword, String category) {
+        // the index ignores one-letter words, keep the LIKE query for those
+        if (productSearchIndex.isReady() && !ProductSearchIndex.tokenize(keyword).isEmpty()) {
+            List<ProductResponse> hits = productSearchIndex.search(keyword);
+            return category == null ? hits : hits.stream()
+                    .filter(product -> category.equals(product.getCategory()))
+                    .toList();
+        }
+        List<Product> products = category == null
+                ? productRepository.searchProducts(keyword)
+                : productRepository.searchProductsInCategory(keyword, category);
+        return products.stream()
+                .map(Productservice::mapToProductResponse)
                 .collect(Collectors.toList());
     }
 
+    @ReadOnPrimary
+    @Transactional(readOnly = true)
     public Optional<ProductResponse> getProduct(Long id) {
-        return productRepository.findById(id)
-                .map(this::mapToProductResponse);
+        return Optional.ofNullable(readThrough("product", id, () -> productRepository.findById(id)
+                .map(Productservice::mapToProductResponse)
+                .orElse(null)));
+    }
+
+    /*
+        @Cacheable, minus its blind put: a load that overlapped a change may
+        have read the row or list as it was before it, after the change
+        had already evicted it. Every change starts by counting up
+        catalogVersion.changes(), so the loaded value is only kept if that
+        count is the same after the put as before the load; otherwise the
+        put is taken back and the next read loads again. Nothing is cached
+        for a missing product.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T readThrough(String cacheName, Object key, Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        long changes = catalogVersion.changes();
+        T value = loader.get();
+        if (value != null && catalogVersion.changes() == changes) {
+            cache.put(key, value);
+            if (catalogVersion.changes() != changes) {
+                cache.evict(key);
+            }
+        }
+        return value;
     }
 }
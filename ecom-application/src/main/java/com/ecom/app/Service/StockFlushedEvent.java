@@ -0,0 +1,10 @@
+package com.ecom.app.Service;
+
+import java.util.Set;
+
+/*
+    Published after in-memory hot-SKU reservations have been written to
+    the products table.
+ */
+public record StockFlushedEvent(Set<Long> productIds) {
+}
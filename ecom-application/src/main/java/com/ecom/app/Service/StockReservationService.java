@@ -0,0 +1,47 @@
+package com.ecom.app.Service;
+
+import com.ecom.app.Repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+@RequiredArgsConstructor
+public class StockReservationService {
+
+    private final ProductRepository productRepository;
+    private final HotStockRegistry hotStockRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /*
+        Takes the requested quantities (product id -> quantity) out of stock
+        with one conditional UPDATE per product, so concurrent checkouts can
+        never oversell and no row is locked longer than its own update.
+        -   Products are always updated in ascending id order, so two
+            checkouts sharing products cannot deadlock.
+        -   Hot products (see HotStockRegistry) are reserved in memory and
+            written to the table later in batches.
+        -   Returns false as soon as one product is short. The updates
+            already made are NOT undone here: the caller must roll back its
+            transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean reserve(Map<Long, Integer> quantities) {
+        Map<Long, Integer> ordered = new TreeMap<>(quantities);
+        for (Map.Entry<Long, Integer> line : ordered.entrySet()) {
+            boolean reserved = hotStockRegistry.isHot(line.getKey())
+                    ? hotStockRegistry.reserve(line.getKey(), line.getValue())
+                    : productRepository.decrementStock(line.getKey(), line.getValue()) > 0;
+            if (!reserved) {
+                return false;
+            }
+        }
+        eventPublisher.publishEvent(new StockReservedEvent(ordered));
+        return true;
+    }
+}
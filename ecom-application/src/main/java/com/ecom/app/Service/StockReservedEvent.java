@@ -0,0 +1,9 @@
+package com.ecom.app.Service;
+
+import java.util.Map;
+
+/*
+    Published when stock has been taken from products, keyed by product id.
+ */
+public record StockReservedEvent(Map<Long, Integer> quantities) {
+}
@@ -0,0 +1,111 @@
+package com.ecom.app.Service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+    Lock-free stock counter for a single product. The available quantity is
+    split over several stripes; a thread starts on a random stripe and only
+    falls back to the others when its stripe runs dry, so concurrent
+    reservations rarely CAS the same slot. A stripe never goes below zero,
+    which is what guarantees no oversell.
+ */
+class StripedStockCounter {
+
+    // one stripe per 64-byte cache line
+    private static final int PADDING = 8;
+
+    private final int stripes;
+    private final AtomicLongArray slots;
+
+    StripedStockCounter(int stripes, long available) {
+        this.stripes = Math.max(1, stripes);
+        this.slots = new AtomicLongArray(this.stripes * PADDING);
+        reset(available);
+    }
+
+    boolean tryTake(int quantity) {
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            if (takeFromStripe((start + i) % stripes, quantity)) {
+                return true;
+            }
+        }
+        return takeAcrossStripes(start, quantity);
+    }
+
+    void release(int quantity) {
+        slots.addAndGet(ThreadLocalRandom.current().nextInt(stripes) * PADDING, quantity);
+    }
+
+    /*
+        Adds to or removes from the available quantity while takes run.
+        A decrease larger than what is available empties the counter.
+     */
+    void adjust(long change) {
+        if (change >= 0) {
+            slots.addAndGet(ThreadLocalRandom.current().nextInt(stripes) * PADDING, change);
+            return;
+        }
+        long remaining = -change;
+        for (int i = 0; i < stripes && remaining > 0; i++) {
+            int slot = i * PADDING;
+            long current;
+            long part;
+            do {
+                current = slots.get(slot);
+                part = Math.min(current, remaining);
+            } while (part > 0 && !slots.compareAndSet(slot, current, current - part));
+            remaining -= Math.max(part, 0);
+        }
+    }
+
+    long available() {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += slots.get(i * PADDING);
+        }
+        return total;
+    }
+
+    // not atomic with concurrent takes, only used on (re)initialisation
+    void reset(long available) {
+        long share = Math.max(available, 0) / stripes;
+        long remainder = Math.max(available, 0) % stripes;
+        for (int i = 0; i < stripes; i++) {
+            slots.set(i * PADDING, share + (i < remainder ? 1 : 0));
+        }
+    }
+
+    private boolean takeFromStripe(int stripe, int quantity) {
+        int slot = stripe * PADDING;
+        long current;
+        do {
+            current = slots.get(slot);
+            if (current < quantity) {
+                return false;
+            }
+        } while (!slots.compareAndSet(slot, current, current - quantity));
+        return true;
+    }
+
+    // no single stripe holds enough: gather the quantity piece by piece, give it back if the total is short
+    private boolean takeAcrossStripes(int start, int quantity) {
+        long taken = 0;
+        for (int i = 0; i < stripes && taken < quantity; i++) {
+            int slot = ((start + i) % stripes) * PADDING;
+            long current;
+            long part;
+            do {
+                current = slots.get(slot);
+                part = Math.min(current, quantity - taken);
+            } while (part > 0 && !slots.compareAndSet(slot, current, current - part));
+            taken += Math.max(part, 0);
+        }
+        if (taken < quantity) {
+            slots.addAndGet(start * PADDING, taken);
+            return false;
+        }
+        return true;
+    }
+}
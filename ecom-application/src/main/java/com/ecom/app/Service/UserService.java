@@ -2,27 +2,37 @@ package com.ecom.app.Service;
 
 import com.ecom.app.Models.Address;
 import com.ecom.app.Models.User;
+import com.ecom.app.Repository.CartSummaryRepository;
 import com.ecom.app.Repository.UserRepository;
 import com.ecom.app.dto.AddressDTO;
+import com.ecom.app.dto.PageResponse;
 import com.ecom.app.dto.UserRequest;
 import com.ecom.app.dto.UserResponse;
+import com.ecom.app.dto.UserRow;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed("ecom.service")
 public class UserService {
+    public static final int MAX_PAGE_SIZE = 200;
 
     private final UserRepository userRepository;
+    private final CartSummaryRepository cartSummaryRepository;
 
+    // the unpaged listing stays a plain list but stops at the first MAX_PAGE_SIZE users, ?limit= pages past them
+    @Transactional(readOnly = true)
     public List<UserResponse> fetchAllUsers(){
-        return userRepository.findAll().stream()
-                .map(this::mapToUserResponse)
-                .collect(Collectors.toList());
+        return userRepository.findRowsAfter(0L, Limit.of(MAX_PAGE_SIZE)).stream()
+                .map(UserService::mapToUserResponse)
+                .toList();
     }
 
     public void addUser(UserRequest userRequest){
@@ -32,21 +42,45 @@ public class UserService {
     }
 
 
+    /*
+        Keyset pagination on id, users and addresses in one select per page.
+        Returns empty when the cursor cannot be decoded.
+     */
+    @Transactional(readOnly = true)
+    public Optional<PageResponse<UserResponse>> fetchUserPage(String cursor, int limit){
+        Optional<Long> afterId = cursor == null ? Optional.of(0L) : KeysetCursor.decode(cursor);
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        return afterId.map(id -> {
+            // read one row more than asked to know whether there is a next page
+            List<UserRow> rows = userRepository.findRowsAfter(id, Limit.of(pageSize + 1));
+            List<UserResponse> items = rows.stream()
+                    .limit(pageSize)
+                    .map(UserService::mapToUserResponse)
+                    .toList();
+            String next = rows.size() > pageSize ? KeysetCursor.encode(items.get(items.size() - 1).getId()) : null;
+            return new PageResponse<>(items, next);
+        });
+    }
+
+    @Transactional(readOnly = true)
     public Optional<UserResponse> fetchUser(Long id){
         return userRepository.findById(id)
-                .map(this::mapToUserResponse);
+                .map(UserService::mapToUserResponse);
     }
 
+    // the cart summary keeps a copy of the first name
+    @Transactional
     public boolean updateUser(Long id, UserRequest updatedUserRequest){
         return userRepository.findById(id)
                 .map(existingUser -> {
                     updateUserFromRequest(existingUser,updatedUserRequest);
                     userRepository.save(existingUser);
+                    cartSummaryRepository.updateUserName(id, existingUser.getFirstName());
                     return true;
                 }).orElse(false);
     }
 
-    private UserResponse mapToUserResponse(User user){
+    public static UserResponse mapToUserResponse(User user){
         UserResponse response = new UserResponse();
         response.setId(user.getId());
         response.setFirstName((user.getFirstName()));
@@ -66,6 +100,28 @@ public class UserService {
         }
         return response;
     }
+
+    public static UserResponse mapToUserResponse(UserRow row){
+        UserResponse response = new UserResponse();
+        response.setId(row.id());
+        response.setFirstName(row.firstName());
+        response.setLastName(row.lastName());
+        response.setEmail(row.email());
+        response.setPhone(row.phone());
+        response.setRole(row.role());
+
+        if(row.addressId()!=null){
+            AddressDTO addressDTO = new AddressDTO();
+            addressDTO.setStreet(row.street());
+            addressDTO.setState(row.state());
+            addressDTO.setCity(row.city());
+            addressDTO.setCountry(row.country());
+            addressDTO.setZipcode(row.zipcode());
+            response.setAddress(addressDTO);
+        }
+        return response;
+    }
+
     private void updateUserFromRequest(User user, UserRequest userRequest) {
         user.setFirstName(userRequest.getFirstName());
         user.setLastName(userRequest.getLastName());
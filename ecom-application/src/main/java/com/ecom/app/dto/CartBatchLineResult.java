@@ -0,0 +1,13 @@
+package com.ecom.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CartBatchLineResult {
+    private Long productId;
+    private Integer quantity;
+    private boolean added;
+    private String message;
+}
@@ -0,0 +1,16 @@
+package com.ecom.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// what the cart badge shows: number of items and the total
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartSummaryResponse {
+    private Integer itemCount;
+    private BigDecimal totalAmount;
+}
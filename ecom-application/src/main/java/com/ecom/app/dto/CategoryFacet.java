@@ -0,0 +1,17 @@
+package com.ecom.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// one entry of the catalog navigation: active products in the category, how many are in stock, price range
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryFacet {
+    private String category;
+    private Integer productCount;
+    private Integer inStockCount;
+    private Integer minPrice;
+    private Integer maxPrice;
+}
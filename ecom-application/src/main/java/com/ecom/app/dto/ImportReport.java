@@ -0,0 +1,25 @@
+package com.ecom.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/*
+    Progress of a bulk product import, and its outcome once finished.
+    errors points to the per-row error file when rows were rejected.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReport {
+    private String id;
+    private String status;
+    private Long rowsRead;
+    private Long imported;
+    private Long rejected;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String errors;
+}
@@ -2,11 +2,13 @@ package com.ecom.app.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 
 @Data
 @AllArgsConstructor
+@NoArgsConstructor
 public class OrderItemDTO {
     private Long id;
     private Long productId;
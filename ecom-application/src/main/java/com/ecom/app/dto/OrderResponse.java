@@ -4,6 +4,7 @@ import com.ecom.app.Models.OrderItem;
 import com.ecom.app.Models.OrderStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -11,6 +12,7 @@ import java.util.List;
 
 @Data
 @AllArgsConstructor
+@NoArgsConstructor
 public class OrderResponse {
     private Long id;
     private BigDecimal totalAmount;
@@ -0,0 +1,12 @@
+package com.ecom.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// async checkout: the PENDING order just recorded, or the user's earlier one that is still pending
+@Data
+@AllArgsConstructor
+public class OrderSubmission {
+    private OrderResponse order;
+    private boolean alreadyPending;
+}
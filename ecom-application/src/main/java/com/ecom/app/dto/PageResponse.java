@@ -0,0 +1,14 @@
+package com.ecom.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class PageResponse<T> {
+    private List<T> items;
+    // opaque cursor for the next page, null on the last page
+    private String next;
+}
@@ -0,0 +1,12 @@
+package com.ecom.app.dto;
+
+import com.ecom.app.Models.UserRole;
+
+/*
+    A user and its address as one flat row, selected straight from the
+    user_table/addresses join without loading the entities. addressId is
+    null for users without an address.
+ */
+public record UserRow(Long id, String firstName, String lastName, String email, String phone, UserRole role,
+                      Long addressId, String street, String city, String state, String country, String zipcode) {
+}
@@ -0,0 +1,117 @@
+package com.ecom.app.Controller;
+
+import com.ecom.app.Models.OrderStatus;
+import com.ecom.app.Service.CartService;
+import com.ecom.app.Service.OrderService;
+import com.ecom.app.Service.Productservice;
+import com.ecom.app.ShopFixture;
+import com.ecom.app.dto.OrderResponse;
+import com.ecom.app.dto.ProductResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static com.ecom.app.ShopFixture.cartItem;
+import static com.ecom.app.ShopFixture.product;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:content-negotiation-test")
+@AutoConfigureMockMvc
+@Import(ShopFixture.class)
+class ContentNegotiationTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private Productservice productservice;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private ShopFixture shop;
+
+    @Test
+    void browsersGetJson() throws Exception {
+        Long id = productservice.createProduct(product("binary kettle", 12, 10)).getId();
+
+        mockMvc.perform(get("/api/products/" + id)
+                        .header(HttpHeaders.ACCEPT, "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void productIsServedAsSmile() throws Exception {
+        ProductResponse created = productservice.createProduct(product("binary kettle", 12, 10));
+
+        byte[] body = mockMvc.perform(get("/api/products/" + created.getId()).accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(new SmileMapper().readValue(body, ProductResponse.class)).isEqualTo(created);
+    }
+
+    @Test
+    void eachRepresentationHasItsOwnETag() throws Exception {
+        String url = "/api/products/" + productservice.createProduct(product("binary kettle", 12, 10)).getId();
+
+        String json = mockMvc.perform(get(url).accept(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String smile = mockMvc.perform(get(url).accept(SMILE))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(json).isNotNull().isNotEqualTo(smile);
+        // the JSON tag does not validate the Smile body, and the other way round
+        mockMvc.perform(get(url).accept(SMILE).header(HttpHeaders.IF_NONE_MATCH, json))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE));
+        mockMvc.perform(get(url).accept(SMILE).header(HttpHeaders.IF_NONE_MATCH, smile))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)));
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, json))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void orderIsServedAsCbor() throws Exception {
+        String userId = shop.createUser("cbor");
+        cartService.addToCart(userId, cartItem(productservice.createProduct(product("binary kettle", 12, 10)).getId(), 3));
+        OrderResponse created = orderService.createOrder(userId).orElseThrow();
+
+        byte[] body = mockMvc.perform(get("/api/orders/" + created.getId())
+                        .header("X-User-ID", userId)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ObjectMapper cbor = CBORMapper.builder().addModule(new JavaTimeModule()).build();
+        OrderResponse order = cbor.readValue(body, OrderResponse.class);
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        assertThat(order.getTotalAmount()).isEqualByComparingTo(new BigDecimal("36"));
+        assertThat(order.getItems()).hasSize(1);
+        assertThat(order.getCreatedAt()).isNotNull();
+    }
+}
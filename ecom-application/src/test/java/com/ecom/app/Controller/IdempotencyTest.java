@@ -0,0 +1,180 @@
+package com.ecom.app.Controller;
+
+import com.ecom.app.Repository.OrderRepository;
+import com.ecom.app.Service.CartService;
+import com.ecom.app.Service.Productservice;
+import com.ecom.app.ShopFixture;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ecom.app.ShopFixture.product;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:idempotency-test")
+@AutoConfigureMockMvc
+@Import(ShopFixture.class)
+class IdempotencyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private Productservice productservice;
+    @Autowired
+    private ShopFixture shop;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void retriedAddToCartIsReplayedNotAddedTwice() throws Exception {
+        String userId = shop.createUser("retry");
+        Long productId = createProduct();
+        String body = "{\"productId\":" + productId + ",\"quantity\":2}";
+
+        mockMvc.perform(addToCart(userId, "cart-1", body))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyStore.REPLAYED_HEADER));
+        mockMvc.perform(addToCart(userId, "cart-1", body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyStore.REPLAYED_HEADER, "true"));
+        assertThat(cartService.getSummary(userId).getItemCount()).isEqualTo(2);
+
+        // same key, different request
+        mockMvc.perform(addToCart(userId, "cart-1", "{\"productId\":" + productId + ",\"quantity\":3}"))
+                .andExpect(status().isUnprocessableEntity());
+        // keys are per user
+        String otherUser = shop.createUser("retry");
+        mockMvc.perform(addToCart(otherUser, "cart-1", body)).andExpect(status().isCreated());
+        assertThat(cartService.getSummary(otherUser).getItemCount()).isEqualTo(2);
+    }
+
+    @Test
+    void retriedCheckoutReturnsTheSameOrder() throws Exception {
+        String userId = shop.createUser("retry");
+        mockMvc.perform(addToCart(userId, null, "{\"productId\":" + createProduct() + ",\"quantity\":1}"))
+                .andExpect(status().isCreated());
+        long orders = orderRepository.count();
+
+        String first = mockMvc.perform(checkout(userId, "order-1"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String retry = mockMvc.perform(checkout(userId, "order-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyStore.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.status").value("CONFIRMED"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(retry).isEqualTo(first);
+        assertThat(orderRepository.count()).isEqualTo(orders + 1);
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheFirstExecution() throws Exception {
+        double waitedBefore = meterRegistry.counter("ecom.idempotency.requests", "outcome", "waited").count();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+
+        // one thread per request, in submission order
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4, task -> {
+            Thread thread = new Thread(task);
+            threads.add(thread);
+            return thread;
+        });
+        List<Future<ResponseEntity<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            responses.add(executor.submit(() -> idempotencyStore.execute("test", "slow", null, () -> {
+                executions.incrementAndGet();
+                running.countDown();
+                await(release);
+                return ResponseEntity.status(HttpStatus.CREATED).body("done");
+            })));
+            if (i == 0) {
+                assertThat(running.await(10, TimeUnit.SECONDS)).isTrue();
+            }
+        }
+        // the first one finishes only once the three duplicates wait for its response
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (threads.stream().skip(1).filter(thread -> thread.getState() == Thread.State.TIMED_WAITING).count() < 3) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.yield();
+        }
+        release.countDown();
+
+        for (Future<ResponseEntity<String>> response : responses) {
+            assertThat(response.get(10, TimeUnit.SECONDS).getBody()).isEqualTo("done");
+        }
+        executor.shutdown();
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(meterRegistry.counter("ecom.idempotency.requests", "outcome", "waited").count())
+                .isEqualTo(waitedBefore + 3);
+    }
+
+    @Test
+    void failedExecutionsAreNotKept() {
+        AtomicInteger executions = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            ResponseEntity<String> response = idempotencyStore.execute("test", "unavailable", null, () -> {
+                executions.incrementAndGet();
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            });
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    private static MockHttpServletRequestBuilder addToCart(String userId, String key, String body) {
+        MockHttpServletRequestBuilder request = post("/api/cart")
+                .header("X-User-ID", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+        return key == null ? request : request.header(IdempotencyStore.HEADER, key);
+    }
+
+    private static MockHttpServletRequestBuilder checkout(String userId, String key) {
+        return post("/api/orders")
+                .header("X-User-ID", userId)
+                .header(IdempotencyStore.HEADER, key);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Long createProduct() {
+        return productservice.createProduct(product("retry lamp", 10, 100)).getId();
+    }
+}
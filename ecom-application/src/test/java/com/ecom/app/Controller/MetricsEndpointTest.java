@@ -0,0 +1,53 @@
+package com.ecom.app.Controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metrics-endpoint-test")
+@AutoConfigureMockMvc
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void serviceAndEndpointTimersHavePercentiles() throws Exception {
+        mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"metrics lamp\",\"price\":10,\"stockQuantity\":5}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/products")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/metrics/ecom.service")
+                        .param("tag", "class:com.ecom.app.Service.Productservice")
+                        .param("tag", "method:createProduct"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[?(@.statistic == 'COUNT')].value").value(hasItem(1.0)));
+        mockMvc.perform(get("/actuator/metrics/ecom.service.percentile")
+                        .param("tag", "method:getAllProducts")
+                        .param("tag", "phi:0.99"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/http.server.requests.percentile")
+                        .param("tag", "uri:/api/products"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void hibernateAndPoolMetricsAreExposed() throws Exception {
+        for (String meter : new String[]{"hibernate.query.executions", "hibernate.entities.loads",
+                "hibernate.cache.query.requests", "hibernate.second.level.cache.requests", "hikaricp.connections.active",
+                "hikaricp.connections.acquire"}) {
+            mockMvc.perform(get("/actuator/metrics/" + meter)).andExpect(status().isOk());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.ecom.app.Controller;
+
+import com.ecom.app.Service.Productservice;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.ecom.app.ShopFixture.product;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-controller-test",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+class ProductControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private Productservice productservice;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void matchingETagIsAnsweredWith304WithoutQueries() throws Exception {
+        Long id = productservice.createProduct(product("etag lamp", 40, 10)).getId();
+        String etag = mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        for (String url : new String[]{"/api/products", "/api/products/" + id, "/api/products/search?keyword=lamp"}) {
+            mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andExpect(content().string(""));
+        }
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void writesChangeTheETag() throws Exception {
+        Long id = productservice.createProduct(product("etag chair", 40, 10)).getId();
+        String etag = mockMvc.perform(get("/api/products/" + id))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        productservice.updateProduct(product("etag chair", 40, 5), id);
+
+        mockMvc.perform(get("/api/products/" + id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(content().string(containsString("\"stockQuantity\":5")));
+    }
+
+    @Test
+    void categoryFilterAndFacets() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            productservice.createProduct(product("garden hose " + i, "garden", 40, 10));
+        }
+        productservice.createProduct(product("hose clamp", 40, 10));
+
+        mockMvc.perform(get("/api/products").param("category", "garden"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+        mockMvc.perform(get("/api/products").param("category", "garden").param("limit", "2"))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.next").isNotEmpty());
+        mockMvc.perform(get("/api/products/search").param("keyword", "hose").param("category", "garden"))
+                .andExpect(jsonPath("$.length()").value(3));
+        mockMvc.perform(get("/api/products/facets"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$[?(@.category == 'garden')].productCount").value(3));
+    }
+
+    @Test
+    void csvUploadIsImportedAndItsErrorsCanBeDownloaded() throws Exception {
+        String id = JsonPath.read(mockMvc.perform(post("/api/products/import")
+                        .contentType("text/csv")
+                        .content("name,price,category\nuploaded desk,120,office\n,5,office\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andReturn().getResponse().getContentAsString(), "$.id");
+
+        mockMvc.perform(get("/api/products/imports"))
+                .andExpect(jsonPath("$[?(@.id == '" + id + "')].imported").value(1));
+        mockMvc.perform(get("/api/products/imports/" + id + "/errors"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("2,\"name is required\"")));
+        mockMvc.perform(post("/api/products/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"lamp\""))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("FAILED"));
+    }
+}
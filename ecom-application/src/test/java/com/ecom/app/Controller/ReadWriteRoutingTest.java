@@ -0,0 +1,156 @@
+package com.ecom.app.Controller;
+
+import com.ecom.app.Service.CartService;
+import com.ecom.app.Service.Productservice;
+import com.ecom.app.Service.UserService;
+import com.ecom.app.ShopFixture;
+import com.ecom.app.dto.ProductResponse;
+import com.ecom.app.dto.UserRequest;
+import com.ecom.app.dto.UserResponse;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static com.ecom.app.ShopFixture.cartItem;
+import static com.ecom.app.ShopFixture.product;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+    Two in-memory H2 databases stand in for the primary and the replica.
+    The replica only changes when replicate() copies the primary over,
+    which makes replication lag as long as a test wants it to be.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary",
+        "ecom.datasource.replica.enabled=true",
+        "ecom.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "ecom.datasource.replica.username=sa",
+        "ecom.datasource.replica.read-your-writes-window=1m"
+})
+@AutoConfigureMockMvc
+@Import(ShopFixture.class)
+class ReadWriteRoutingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private Productservice productservice;
+    @Autowired
+    private ShopFixture shop;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @Test
+    void readOnlyTransactionsReadTheReplica() {
+        Long replicated = Long.valueOf(shop.createUser("replicated"));
+        replicate();
+        Long lagging = Long.valueOf(shop.createUser("lagging"));
+
+        assertThat(userService.fetchAllUsers()).extracting(UserResponse::getId)
+                .contains(replicated)
+                .doesNotContain(lagging);
+        assertThat(userService.fetchUser(lagging)).isEmpty();
+        // finders in a read-write transaction see the primary
+        UserRequest rename = new UserRequest();
+        rename.setFirstName("renamed");
+        assertThat(userService.updateUser(lagging, rename)).isTrue();
+
+        replicate();
+        assertThat(userService.fetchUser(lagging)).isPresent();
+    }
+
+    @Test
+    void aUserReadsTheirOwnWritesWhileTheReplicaLags() throws Exception {
+        String writer = shop.createUser("writer");
+        String reader = shop.createUser("reader");
+        Long productId = createProduct();
+        replicate();
+
+        mockMvc.perform(post("/api/cart")
+                        .header("X-User-ID", writer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":" + productId + ",\"quantity\":2}"))
+                .andExpect(status().isCreated());
+
+        // the writer's reads go to the primary
+        mockMvc.perform(get("/api/cart").header("X-User-ID", writer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+        mockMvc.perform(get("/api/cart/summary").header("X-User-ID", writer))
+                .andExpect(jsonPath("$.itemCount").value(2));
+        // everyone else still reads the replica, where the cart line is not there yet
+        mockMvc.perform(get("/api/cart").header("X-User-ID", reader))
+                .andExpect(status().isOk());
+        assertThat(cartService.getAllProducts(writer)).isEmpty();
+
+        replicate();
+        assertThat(cartService.getAllProducts(writer)).hasSize(1);
+    }
+
+    @Test
+    void productReadsTaggedWithTheCatalogVersionSeeThePrimary() throws Exception {
+        replicate();
+        Long lagging = createProduct();
+
+        // the ETag already counts the new product, so the page must show it
+        mockMvc.perform(get("/api/products").param("limit", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[?(@.id == " + lagging + ")]").exists());
+        assertThat(productservice.getProductPage(null, 100, null)).get()
+                .satisfies(page -> assertThat(page.getItems()).extracting(ProductResponse::getId).contains(lagging));
+    }
+
+    @Test
+    void browsingTheCatalogKeepsAUserOnTheReplica() throws Exception {
+        String shopper = shop.createUser("shopper");
+        Long productId = createProduct();
+        replicate();
+        // a cart line that has not reached the replica yet, added without the user's header
+        assertThat(cartService.addToCart(shopper, cartItem(productId, 1))).isTrue();
+
+        mockMvc.perform(get("/api/products").param("limit", "10").header("X-User-ID", shopper))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/" + productId).header("X-User-ID", shopper))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/search").param("keyword", "replicated").header("X-User-ID", shopper))
+                .andExpect(status().isOk());
+
+        // the cart read still goes to the replica
+        mockMvc.perform(get("/api/cart").header("X-User-ID", shopper))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    private Long createProduct() {
+        return productservice.createProduct(product("replicated product", 10, 100)).getId();
+    }
+
+    // a full copy of the primary, in place of the replication a real replica gets
+    private void replicate() {
+        List<String> script = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT", String.class);
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("DROP ALL OBJECTS");
+        script.forEach(replica::execute);
+    }
+}
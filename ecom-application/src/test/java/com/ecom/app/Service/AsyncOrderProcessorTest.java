@@ -0,0 +1,109 @@
+package com.ecom.app.Service;
+
+import com.ecom.app.Models.OrderStatus;
+import com.ecom.app.Repository.ProductRepository;
+import com.ecom.app.ShopFixture;
+import com.ecom.app.dto.OrderResponse;
+import com.ecom.app.dto.OrderSubmission;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:async-order-test",
+        "ecom.orders.async.enabled=true",
+        "ecom.orders.async.workers=2"
+})
+@Import(ShopFixture.class)
+class AsyncOrderProcessorTest {
+
+    @Autowired
+    private AsyncOrderProcessor asyncOrderProcessor;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private ShopFixture shop;
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void submittedOrderIsConfirmedByAWorker() throws InterruptedException {
+        String userId = shop.createUserWithCart("async", 1, 10);
+
+        OrderResponse submitted = orderService.submitOrder(userId).orElseThrow().getOrder();
+        assertThat(submitted.getStatus()).isEqualTo(OrderStatus.PENDING);
+        assertThat(asyncOrderProcessor.enqueue(submitted.getId())).isTrue();
+
+        OrderResponse order = awaitCompletion(submitted.getId(), userId);
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        assertThat(order.getItems()).hasSize(1);
+        assertThat(cartService.getCart(userId)).isEmpty();
+    }
+
+    @Test
+    void submittedOrderIsCancelledWhenStockIsShort() throws InterruptedException {
+        String userId = shop.createUserWithCart("async", 1, 10);
+        Long productId = cartService.getCart(userId).get(0).getProduct().getId();
+
+        OrderResponse submitted = orderService.submitOrder(userId).orElseThrow().getOrder();
+        productRepository.decrementStock(productId, 95);
+        asyncOrderProcessor.enqueue(submitted.getId());
+
+        OrderResponse order = awaitCompletion(submitted.getId(), userId);
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(order.getItems()).isEmpty();
+        assertThat(cartService.getCart(userId)).hasSize(1);
+        assertThat(productRepository.findById(productId).orElseThrow().getStockQuantity()).isEqualTo(5);
+    }
+
+    @Test
+    void aUserWithACancelledOrderCanCheckOutAgain() throws InterruptedException {
+        String userId = shop.createUserWithCart("async", 1, 10);
+
+        // what a full queue does with the order it could not take
+        OrderResponse rejected = orderService.submitOrder(userId).orElseThrow().getOrder();
+        orderService.cancelOrder(rejected.getId());
+        assertThat(orderService.getOrder(rejected.getId(), userId).orElseThrow().getStatus())
+                .isEqualTo(OrderStatus.CANCELLED);
+
+        OrderSubmission resubmitted = orderService.submitOrder(userId).orElseThrow();
+        assertThat(resubmitted.isAlreadyPending()).isFalse();
+        assertThat(resubmitted.getOrder().getId()).isNotEqualTo(rejected.getId());
+        assertThat(asyncOrderProcessor.enqueue(resubmitted.getOrder().getId())).isTrue();
+        assertThat(awaitCompletion(resubmitted.getOrder().getId(), userId).getStatus())
+                .isEqualTo(OrderStatus.CONFIRMED);
+    }
+
+    @Test
+    void aSecondSubmissionReturnsTheOrderStillPending() {
+        String userId = shop.createUserWithCart("async", 1, 10);
+
+        OrderSubmission first = orderService.submitOrder(userId).orElseThrow();
+        OrderSubmission second = orderService.submitOrder(userId).orElseThrow();
+
+        assertThat(first.isAlreadyPending()).isFalse();
+        assertThat(second.isAlreadyPending()).isTrue();
+        assertThat(second.getOrder().getId()).isEqualTo(first.getOrder().getId());
+    }
+
+    @Test
+    void submitRequiresACart() {
+        assertThat(orderService.submitOrder(shop.createUser("async"))).isEmpty();
+    }
+
+    private OrderResponse awaitCompletion(Long orderId, String userId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            OrderResponse order = orderService.getOrder(orderId, userId).orElseThrow();
+            if (order.getStatus() != OrderStatus.PENDING) {
+                return order;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("order " + orderId + " is still pending");
+    }
+}
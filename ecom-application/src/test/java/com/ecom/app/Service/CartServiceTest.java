@@ -0,0 +1,131 @@
+package com.ecom.app.Service;
+
+import com.ecom.app.Models.CartItem;
+import com.ecom.app.ShopFixture;
+import com.ecom.app.dto.CartItemDTO;
+import com.ecom.app.dto.CartSummaryResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.ecom.app.ShopFixture.cartItem;
+import static com.ecom.app.ShopFixture.product;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cart-service-test",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ecom.app.Service.SqlCounter"
+})
+@Import(ShopFixture.class)
+class CartServiceTest {
+
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private Productservice productservice;
+    @Autowired
+    private ShopFixture shop;
+
+    @Test
+    void clearCartIssuesOneDeleteAndResetsTheSummary() {
+        String userId = shop.createUserWithCart("cart", 100, 1);
+
+        SqlCounter.clear();
+        cartService.clearCart(userId);
+
+        assertThat(SqlCounter.total()).isEqualTo(2);
+        assertThat(SqlCounter.count("update cart_summary")).isEqualTo(1);
+        assertThat(SqlCounter.count("delete from cart_items")).isEqualTo(1);
+        assertThat(cartService.getCart(userId)).isEmpty();
+        assertThat(cartService.getAllProducts(userId)).isEmpty();
+        assertThat(cartService.getSummary(userId).getItemCount()).isZero();
+    }
+
+    @Test
+    void deleteFromCartRemovesOnlyThatLine() {
+        String userId = shop.createUserWithCart("cart", 3, 1);
+        Long productId = cartService.getCart(userId).get(1).getProduct().getId();
+
+        SqlCounter.clear();
+        assertThat(cartService.deleteFromCart(userId, productId)).isTrue();
+        // locking summary select, summary update, delete
+        assertThat(SqlCounter.total()).isEqualTo(3);
+
+        assertThat(cartService.getCart(userId))
+                .hasSize(2)
+                .noneMatch(item -> item.getProduct().getId().equals(productId));
+        assertThat(cartService.getAllProducts(userId)).hasSize(2);
+        assertThat(cartService.deleteFromCart(userId, productId)).isFalse();
+    }
+
+    @Test
+    void summaryFollowsEveryCartChangeAndIsReadInOneSelect() {
+        // prices 5, 6, 7, one of each
+        String userId = shop.createUserWithCart("cart", 3, 1);
+        List<CartItem> items = cartService.getCart(userId);
+        cartService.addToCart(userId, cartItem(items.get(0).getProduct().getId(), 2));
+        cartService.addToCartBatch(userId, List.of(
+                cartItem(items.get(1).getProduct().getId(), 1),
+                cartItem(items.get(2).getProduct().getId(), 1_000)));
+        cartService.deleteFromCart(userId, items.get(2).getProduct().getId());
+
+        SqlCounter.clear();
+        CartSummaryResponse summary = cartService.getSummary(userId);
+        List<CartItemDTO> lines = cartService.getAllProducts(userId);
+        assertThat(SqlCounter.total()).isEqualTo(2);
+
+        assertThat(summary.getItemCount()).isEqualTo(5);
+        assertThat(summary.getTotalAmount()).isEqualByComparingTo("27");
+        assertThat(lines)
+                .extracting(CartItemDTO::getId, CartItemDTO::getUserName, CartItemDTO::getQuantity)
+                .containsExactly(
+                        tuple(items.get(0).getId(), "cart", 3),
+                        tuple(items.get(1).getId(), "cart", 2));
+        assertThat(lines).extracting(CartItemDTO::getPrice)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("15"), new BigDecimal("12"));
+        // matches the rows
+        assertThat(cartService.getCart(userId))
+                .extracting(CartItem::getQuantity)
+                .containsExactly(3, 2);
+    }
+
+    @Test
+    void concurrentFirstAddsOfOneUserAllSucceed() throws Exception {
+        String userId = shop.createUserWithCart("cart", 0, 1);
+        int threads = 8;
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            productIds.add(productservice.createProduct(product("first-add-" + i, 10, 10)).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> adds = new ArrayList<>();
+        for (Long productId : productIds) {
+            adds.add(executor.submit(() -> {
+                start.await();
+                return cartService.addToCart(userId, cartItem(productId, 1));
+            }));
+        }
+        start.countDown();
+        for (Future<Boolean> add : adds) {
+            assertThat(add.get(1, TimeUnit.MINUTES)).isTrue();
+        }
+        executor.shutdown();
+
+        assertThat(cartService.getSummary(userId).getItemCount()).isEqualTo(threads);
+        assertThat(cartService.getCart(userId)).hasSize(threads);
+    }
+}
@@ -0,0 +1,78 @@
+package com.ecom.app.Service;
+
+import com.ecom.app.dto.CategoryFacet;
+import com.ecom.app.dto.ProductRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+import static com.ecom.app.ShopFixture.product;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:category-facets-test",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class CategoryFacetsTest {
+
+    @Autowired
+    private Productservice productservice;
+    @Autowired
+    private StockReservationService stockReservationService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void facetsFollowProductWrites() {
+        Long cheap = productservice.createProduct(product("lamp", "living", 10, 5)).getId();
+        Long dear = productservice.createProduct(product("sofa", "living", 90, 0)).getId();
+        productservice.createProduct(product("rug", "living", 40, 2));
+
+        assertThat(facet("living")).isEqualTo(new CategoryFacet("living", 3, 2, 10, 90));
+
+        // the cheapest product moves to another category, the range follows
+        ProductRequest moved = product("lamp", "living", 15, 5);
+        moved.setCategory("lighting");
+        productservice.updateProduct(moved, cheap);
+        assertThat(facet("living")).isEqualTo(new CategoryFacet("living", 2, 1, 40, 90));
+        assertThat(facet("lighting")).isEqualTo(new CategoryFacet("lighting", 1, 1, 15, 15));
+
+        productservice.deleteProduct(dear);
+        assertThat(facet("living")).isEqualTo(new CategoryFacet("living", 1, 1, 40, 40));
+
+        productservice.deleteProduct(cheap);
+        assertThat(productservice.getCategoryFacets()).extracting(CategoryFacet::getCategory)
+                .doesNotContain("lighting");
+    }
+
+    @Test
+    void reservingTheLastUnitsTakesTheProductOutOfTheInStockCount() {
+        Long id = productservice.createProduct(product("kettle", "kitchen", 20, 2)).getId();
+        productservice.createProduct(product("toaster", "kitchen", 20, 3));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        transactionTemplate.executeWithoutResult(status ->
+                assertThat(stockReservationService.reserve(Map.of(id, 2))).isTrue());
+
+        assertThat(facet("kitchen").getInStockCount()).isEqualTo(1);
+        assertThat(facet("kitchen").getProductCount()).isEqualTo(2);
+        // the conditional stock UPDATE is the only statement, the facets are served from memory
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private CategoryFacet facet(String category) {
+        return productservice.getCategoryFacets().stream()
+                .filter(facet -> facet.getCategory().equals(category))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,160 @@
+package com.ecom.app.Service;
+
+import com.ecom.app.Repository.ProductRepository;
+import com.ecom.app.dto.ProductRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:hot-stock-test",
+        "spring.jpa.show-sql=false",
+        "ecom.stock.hot.enabled=true",
+        "ecom.stock.hot.product-ids=1",
+        "ecom.stock.hot.flush-interval=1h"
+})
+class HotStockRegistryTest {
+
+    @Autowired
+    private HotStockRegistry hotStockRegistry;
+    @Autowired
+    private StockReservationService stockReservationService;
+    @Autowired
+    private Productservice productservice;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Long productId = 1L;
+
+    @BeforeEach
+    void stockHotProduct() {
+        ProductRequest product = new ProductRequest();
+        product.setName("flash sale product");
+        product.setPrice(100);
+        product.setStockQuantity(2_000);
+        if (productRepository.existsById(productId)) {
+            // also moves the in-memory counter to match
+            productservice.updateProduct(product, productId);
+        } else {
+            assertThat(productservice.createProduct(product).getId()).isEqualTo(productId);
+        }
+    }
+
+    @Test
+    void hotProductIsReservedInMemoryAndFlushedWithoutOverselling() throws Exception {
+        assertThat(hotStockRegistry.isHot(productId)).isTrue();
+        long available = hotStockRegistry.available(productId);
+        int stored = productRepository.findById(productId).orElseThrow().getStockQuantity();
+
+        int threads = 16;
+        AtomicInteger reserved = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(executor.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    int quantity = 1 + i % 3;
+                    if (reserve(Map.of(productId, quantity))) {
+                        reserved.addAndGet(quantity);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(reserved.get()).isLessThanOrEqualTo((int) available);
+        assertThat(hotStockRegistry.available(productId)).isEqualTo(available - reserved.get());
+        // nothing reaches the table before a flush
+        assertThat(productRepository.findById(productId).orElseThrow().getStockQuantity()).isEqualTo(stored);
+
+        hotStockRegistry.flush();
+
+        assertThat(productRepository.findById(productId).orElseThrow().getStockQuantity())
+                .isEqualTo(stored - reserved.get());
+    }
+
+    @Test
+    void adminStockUpdatesDuringReservationsKeepCounterAndTableInStep() throws Exception {
+        hotStockRegistry.available(productId);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 100; i++) {
+                    boolean rollBack = (worker + i) % 3 == 0;
+                    transactionTemplate.executeWithoutResult(status -> {
+                        if (!stockReservationService.reserve(Map.of(productId, 1)) || rollBack) {
+                            status.setRollbackOnly();
+                        }
+                        // keep the reservation in flight across admin updates and flushes
+                        Thread.yield();
+                    });
+                }
+                return null;
+            }));
+        }
+        workers.add(executor.submit(() -> {
+            start.await();
+            for (int i = 0; i < 20; i++) {
+                ProductRequest product = new ProductRequest();
+                product.setName("flash sale product");
+                product.setPrice(100);
+                product.setStockQuantity(i % 2 == 0 ? 2_500 : 1_500);
+                productservice.updateProduct(product, productId);
+                hotStockRegistry.flush();
+            }
+            return null;
+        }));
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        hotStockRegistry.flush();
+        assertThat(hotStockRegistry.available(productId))
+                .isEqualTo((long) productRepository.findById(productId).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void rolledBackReservationIsGivenBack() {
+        long before = hotStockRegistry.available(productId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(stockReservationService.reserve(Map.of(productId, 1))).isTrue();
+            status.setRollbackOnly();
+        });
+
+        assertThat(hotStockRegistry.available(productId)).isEqualTo(before);
+    }
+
+    private boolean reserve(Map<Long, Integer> quantities) {
+        return transactionTemplate.execute(status -> {
+            boolean reserved = stockReservationService.reserve(quantities);
+            if (!reserved) {
+                status.setRollbackOnly();
+            }
+            return reserved;
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecom.app.Service;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+    Runs a test's action once, right after Hibernate read the next entity
+    from the table and before the caller gets it, to put a concurrent
+    change between a load and what is done with it.
+ */
+public class LoadHook implements Interceptor {
+
+    private static final AtomicReference<Runnable> NEXT = new AtomicReference<>();
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        Runnable action = NEXT.getAndSet(null);
+        if (action != null) {
+            action.run();
+        }
+        return false;
+    }
+
+    static void afterNextLoad(Runnable action) {
+        NEXT.set(action);
+    }
+}
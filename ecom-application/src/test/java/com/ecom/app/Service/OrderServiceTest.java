@@ -0,0 +1,91 @@
+package com.ecom.app.Service;
+
+import com.ecom.app.Repository.ProductRepository;
+import com.ecom.app.ShopFixture;
+import com.ecom.app.dto.OrderResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:order-service-test",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ecom.app.Service.SqlCounter"
+})
+@Import(ShopFixture.class)
+class OrderServiceTest {
+
+    private static final int CART_LINES = 50;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private ShopFixture shop;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void createOrderRunsAFixedNumberOfStatements() {
+        String userId = shop.createUserWithCart("checkout", CART_LINES, 2);
+
+        statistics.clear();
+        SqlCounter.clear();
+        OrderResponse order = orderService.createOrder(userId).orElseThrow();
+        long statements = statistics.getPrepareStatementCount();
+        long sequenceCalls = SqlCounter.count("select next value for");
+
+        assertThat(order.getItems()).hasSize(CART_LINES);
+        assertThat(cartService.getCart(userId)).isEmpty();
+        // 1 locking cart summary select, 1 fetch-joined cart select, 50 conditional stock updates,
+        // 1 order insert, 1 batch of 50 order item inserts, 1 summary reset and 1 bulk delete
+        // clearing the cart, plus the occasional pooled sequence call
+        assertThat(statements - sequenceCalls).isEqualTo(56);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 40})
+    void orderItemsAreInsertedInOneBatch(int lines) {
+        String userId = shop.createUserWithCart("checkout", lines, 2);
+
+        SqlCounter.clear();
+        orderService.createOrder(userId).orElseThrow();
+
+        assertThat(SqlCounter.count("insert into orders")).isEqualTo(1);
+        assertThat(SqlCounter.count("insert into order_item")).isEqualTo(1);
+    }
+
+    @Test
+    void createOrderFailsWithoutTakingStockWhenOneProductIsShort() {
+        String userId = shop.createUserWithCart("checkout", 3, 2);
+        Long lastProductId = cartService.getCart(userId).get(2).getProduct().getId();
+        productRepository.decrementStock(lastProductId, 99);
+
+        assertThat(orderService.createOrder(userId)).isEmpty();
+
+        assertThat(cartService.getCart(userId))
+                .hasSize(3)
+                .allSatisfy(item -> assertThat(productRepository.findById(item.getProduct().getId())
+                        .orElseThrow().getStockQuantity())
+                        .isEqualTo(item.getProduct().getId().equals(lastProductId) ? 1 : 100));
+    }
+}
@@ -0,0 +1,101 @@
+package com.ecom.app.Service;
+
+import com.ecom.app.dto.ImportReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-import-test",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ecom.app.Service.SqlCounter",
+        "ecom.import.batch-size=100",
+        "ecom.import.commit-interval=1000"
+})
+class ProductImportServiceTest {
+
+    private static final int ROWS = 5_000;
+
+    @Autowired
+    private ProductImportService productImportService;
+    @Autowired
+    private Productservice productservice;
+
+    @Test
+    void csvRowsAreInsertedInJdbcBatches() {
+        StringBuilder csv = new StringBuilder("name,price,stockQuantity,category\n");
+        for (int i = 0; i < ROWS; i++) {
+            csv.append("bulk product ").append(i).append(',').append(i % 90 + 10).append(",5,bulk\n");
+        }
+
+        SqlCounter.clear();
+        ImportReport report = productImportService.importCsv(stream(csv));
+
+        assertThat(report.getStatus()).isEqualTo("COMPLETED");
+        assertThat(report.getImported()).isEqualTo(ROWS);
+        assertThat(report.getRejected()).isZero();
+        assertThat(report.getErrors()).isNull();
+        // one prepared insert per JDBC batch of 100
+        assertThat(SqlCounter.count("insert into products")).isEqualTo(ROWS / 100);
+        assertThat(productservice.getProductsInCategory("bulk")).hasSize(ROWS);
+        assertThat(productservice.searchProducts("bulk product 4999", null)).isNotEmpty();
+    }
+
+    @Test
+    void invalidRowsGoToTheErrorFileAndTheOthersAreImported() throws Exception {
+        String csv = """
+                name,price,stockQuantity,category,unknownColumn
+                good one,10,1,errors,ignored
+                ,10,1,errors,
+                bad price,ten,1,errors,
+                negative stock,10,-1,errors,
+                good two,20,,errors,
+                """;
+
+        ImportReport report = productImportService.importCsv(stream(csv));
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(3);
+        assertThat(productservice.getProductsInCategory("errors"))
+                .extracting(product -> product.getName() + ":" + product.getStockQuantity())
+                .containsExactly("good one:1", "good two:0");
+        Path errors = productImportService.getErrorFile(report.getId()).orElseThrow();
+        assertThat(Files.readAllLines(errors))
+                .hasSize(4)
+                .first().isEqualTo("row,error");
+        assertThat(Files.readAllLines(errors).subList(1, 4))
+                .extracting(line -> line.substring(0, line.indexOf(',')))
+                .containsExactly("2", "3", "4");
+    }
+
+    @Test
+    void ndjsonImportStopsAtAnUnreadableLine() throws Exception {
+        String ndjson = """
+                {"name":"json one","price":5,"category":"ndjson"}
+                {"name":"json two","price":6,"category":"ndjson"}
+                {"name":"broken",
+                """;
+
+        ImportReport report = productImportService.importNdjson(stream(ndjson));
+
+        assertThat(report.getStatus()).isEqualTo("FAILED");
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(1);
+        assertThat(productservice.getProductsInCategory("ndjson")).hasSize(2);
+        assertThat(Files.readAllLines(productImportService.getErrorFile(report.getId()).orElseThrow()).get(1))
+                .startsWith("3,");
+        assertThat(productImportService.getImport(report.getId())).contains(report);
+    }
+
+    private static InputStream stream(CharSequence text) {
+        return new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
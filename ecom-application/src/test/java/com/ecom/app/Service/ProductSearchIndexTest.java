@@ -0,0 +1,112 @@
+package com.ecom.app.Service;
+
+import com.ecom.app.ShopFixture;
+import com.ecom.app.dto.ProductRequest;
+import com.ecom.app.dto.ProductResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:product-search-index-test")
+class ProductSearchIndexTest {
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+    @Autowired
+    private Productservice productservice;
+    @Autowired
+    private StockReservationService stockReservationService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void nameRanksOverCategoryOverDescriptionAndWholeWordsOverParts() {
+        Long description = create("plain lamp", "lighting", "a zephyr shade", 5);
+        Long partialName = create("zephyrus lamp", "lighting", null, 5);
+        Long category = create("plain rug", "zephyr", null, 5);
+        Long name = create("zephyr fan", "cooling", null, 5);
+        Long partialDescription = create("plain fan", "cooling", "zephyrish breeze", 5);
+
+        // whole word: name 6, category 4, description 2; part of a word: name 3, description 1
+        assertThat(search("zephyr"))
+                .containsExactly(name, category, partialName, description, partialDescription);
+    }
+
+    @Test
+    void everyWordOfTheKeywordMustMatch() {
+        Long both = create("quartz clock", "decor", null, 5);
+        create("quartz watch", "decor", null, 5);
+        create("wall clock", "decor", null, 5);
+
+        assertThat(search("Quartz CLOCK")).containsExactly(both);
+        assertThat(search("quartz sundial")).isEmpty();
+    }
+
+    @Test
+    void twoCharacterWordsAreLookedUpByTheirBigram() {
+        Long stand = create("qx stand", "furniture", null, 5);
+        create("quixotic stand", "furniture", null, 5);
+
+        assertThat(search("qx")).containsExactly(stand);
+    }
+
+    @Test
+    void deletedAndRecategorizedProductsLeaveTheIndex() {
+        Long vase = create("obsidian vase", "decor", null, 5);
+        Long bowl = create("plain bowl", "marbleware", null, 5);
+        assertThat(search("obsidian")).containsExactly(vase);
+        assertThat(search("marbleware")).containsExactly(bowl);
+
+        productservice.deleteProduct(vase);
+        productservice.updateProduct(product("plain bowl", "stoneware", null, 5), bowl);
+
+        assertThat(search("obsidian")).isEmpty();
+        assertThat(search("marbleware")).isEmpty();
+        assertThat(search("stoneware")).containsExactly(bowl);
+    }
+
+    @Test
+    void productsSoldOutByAReservationAreHidden() {
+        Long last = create("saffron tin", "pantry", null, 2);
+        Long plenty = create("saffron jar", "pantry", null, 10);
+
+        transactionTemplate.executeWithoutResult(status ->
+                assertThat(stockReservationService.reserve(Map.of(last, 2, plenty, 1))).isTrue());
+
+        assertThat(search("saffron")).containsExactly(plenty);
+    }
+
+    @Test
+    void oneCharacterKeywordsFallBackToTheLikeQuery() {
+        Long goggles = create("x ray goggles", "lab", null, 5);
+        create("x ray film", "lab", null, 0);
+
+        assertThat(productSearchIndex.search("x")).isEmpty();
+        assertThat(productservice.searchProducts("x", null))
+                .extracting(ProductResponse::getId)
+                .contains(goggles)
+                .allSatisfy(id -> assertThat(productservice.getProduct(id).orElseThrow().getName()).containsIgnoringCase("x"));
+        assertThat(productservice.searchProducts("x", "lab")).extracting(ProductResponse::getId)
+                .containsExactly(goggles);
+    }
+
+    private List<Long> search(String keyword) {
+        return productSearchIndex.search(keyword).stream().map(ProductResponse::getId).toList();
+    }
+
+    private Long create(String name, String category, String description, int stock) {
+        return productservice.createProduct(product(name, category, description, stock)).getId();
+    }
+
+    private static ProductRequest product(String name, String category, String description, int stock) {
+        ProductRequest product = ShopFixture.product(name, category, 10, stock);
+        product.setDescription(description);
+        return product;
+    }
+}
@@ -0,0 +1,123 @@
+package com.ecom.app.Service;
+
+import com.ecom.app.Models.Product;
+import com.ecom.app.Repository.ProductRepository;
+import com.ecom.app.ShopFixture;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+import static com.ecom.app.ShopFixture.cartItem;
+import static com.ecom.app.ShopFixture.product;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-second-level-cache-test",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.interceptor=com.ecom.app.Service.LoadHook"
+})
+@Import(ShopFixture.class)
+class ProductSecondLevelCacheTest {
+
+    @Autowired
+    private Productservice productservice;
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ShopFixture shop;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void productsAreReadWithoutSqlAndUpdatesReplaceTheCachedRow() {
+        Long id = productservice.createProduct(product("cached lamp", 10, 10)).getId();
+
+        statistics.clear();
+        assertThat(productRepository.findById(id).orElseThrow().getName()).isEqualTo("cached lamp");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        productservice.updateProduct(product("renamed lamp", 10, 7), id);
+        Product updated = productRepository.findById(id).orElseThrow();
+        assertThat(updated.getName()).isEqualTo("renamed lamp");
+        assertThat(updated.getStockQuantity()).isEqualTo(7);
+
+        productservice.deleteProduct(id);
+        assertThat(productRepository.findById(id).orElseThrow().getActive()).isFalse();
+    }
+
+    @Test
+    void cartAndCheckoutResolveProductsFromTheCache() {
+        Long first = productservice.createProduct(product("cached chair", 10, 20)).getId();
+        Long second = productservice.createProduct(product("cached table", 10, 20)).getId();
+        String userId = shop.createUser("cache");
+
+        statistics.clear();
+        cartService.addToCart(userId, cartItem(first, 2));
+        cartService.addToCart(userId, cartItem(second, 3));
+        orderService.createOrder(userId).orElseThrow();
+
+        assertThat(statistics.getEntityStatistics(Product.class.getName()).getLoadCount()).isZero();
+        // once per add for the cart summary line, once per line at checkout
+        assertThat(statistics.getDomainDataRegionStatistics("product").getHitCount()).isEqualTo(4);
+        // reserved stock is evicted after commit and read back from the table
+        assertThat(productRepository.findById(first).orElseThrow().getStockQuantity()).isEqualTo(18);
+        assertThat(productRepository.findById(second).orElseThrow().getStockQuantity()).isEqualTo(17);
+    }
+
+    @Test
+    void stockUpdatesEvictTheCachedRowAndDeletesLeaveTheStockAlone() {
+        Long id = productservice.createProduct(product("cached desk", 10, 10)).getId();
+        productRepository.findById(id).orElseThrow();
+
+        productRepository.decrementStock(id, 4);
+        assertThat(productRepository.findById(id).orElseThrow().getStockQuantity()).isEqualTo(6);
+        productRepository.subtractStock(id, 1);
+        assertThat(productRepository.findById(id).orElseThrow().getStockQuantity()).isEqualTo(5);
+
+        // changed behind the cache, like another instance would
+        jdbcTemplate.update("UPDATE products SET stock_quantity = 2 WHERE id = ?", id);
+        productservice.deleteProduct(id);
+        assertThat(jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?", Integer.class, id))
+                .isEqualTo(2);
+        assertThat(productRepository.findById(id).orElseThrow().getStockQuantity()).isEqualTo(2);
+    }
+
+    @Test
+    void aLoadThatOverlapsAnUpdateIsNotCached() {
+        Long id = productservice.createProduct(product("cached clock", 10, 10)).getId();
+        cacheManager.getCache("product").evict(id);
+        entityManagerFactory.getCache().evict(Product.class, id);
+
+        // the update commits after the read below has loaded the old row
+        LoadHook.afterNextLoad(() -> CompletableFuture
+                .runAsync(() -> productservice.updateProduct(product("updated clock", 10, 10), id))
+                .join());
+        assertThat(productservice.getProduct(id).orElseThrow().getName()).isEqualTo("cached clock");
+
+        assertThat(productservice.getProduct(id).orElseThrow().getName()).isEqualTo("updated clock");
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecom.app.Service;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/*
+    Records every SQL string Hibernate prepares. A JDBC batch is prepared
+    once, so counting statements counts batches.
+ */
+public class SqlCounter implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql.toLowerCase());
+        return sql;
+    }
+
+    static void clear() {
+        STATEMENTS.clear();
+    }
+
+    static long count(String prefix) {
+        return STATEMENTS.stream().filter(sql -> sql.startsWith(prefix)).count();
+    }
+
+    static long total() {
+        return STATEMENTS.size();
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecom.app.Service;
+
+import com.ecom.app.Repository.ProductRepository;
+import com.ecom.app.dto.ProductRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stock-reservation-test",
+        "spring.jpa.show-sql=false"
+})
+class StockReservationServiceTest {
+
+    @Autowired
+    private StockReservationService stockReservationService;
+    @Autowired
+    private Productservice productservice;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentReservationsNeverOversellAHotProduct() throws Exception {
+        int stock = 500;
+        int threads = 16;
+        int attemptsPerThread = 50;
+        Long productId = createProduct(stock);
+
+        AtomicInteger reserved = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    if (reserve(Map.of(productId, 1))) {
+                        reserved.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(reserved.get()).isEqualTo(stock);
+        assertThat(productRepository.findById(productId).orElseThrow().getStockQuantity()).isZero();
+    }
+
+    @Test
+    void shortLineFailsTheWholeReservation() {
+        Long plenty = createProduct(10);
+        Long scarce = createProduct(1);
+
+        assertThat(reserve(Map.of(plenty, 5, scarce, 2))).isFalse();
+
+        assertThat(productRepository.findById(plenty).orElseThrow().getStockQuantity()).isEqualTo(10);
+        assertThat(productRepository.findById(scarce).orElseThrow().getStockQuantity()).isEqualTo(1);
+    }
+
+    private boolean reserve(Map<Long, Integer> quantities) {
+        return transactionTemplate.execute(status -> {
+            boolean reserved = stockReservationService.reserve(quantities);
+            if (!reserved) {
+                status.setRollbackOnly();
+            }
+            return reserved;
+        });
+    }
+
+    private Long createProduct(int stock) {
+        ProductRequest product = new ProductRequest();
+        product.setName("hot product");
+        product.setPrice(100);
+        product.setStockQuantity(stock);
+        return productservice.createProduct(product).getId();
+    }
+}
@@ -0,0 +1,96 @@
+package com.ecom.app.Service;
+
+import com.ecom.app.dto.AddressDTO;
+import com.ecom.app.dto.PageResponse;
+import com.ecom.app.dto.UserRequest;
+import com.ecom.app.dto.UserResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user-service-test",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UserServiceTest {
+
+    private static final int USERS = 250;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    void createUsers() {
+        for (int i = 0; i < USERS; i++) {
+            UserRequest request = new UserRequest();
+            request.setFirstName("user-" + i);
+            if (i % 2 == 0) {
+                AddressDTO address = new AddressDTO();
+                address.setCity("city-" + i);
+                request.setAddress(address);
+            }
+            userService.addUser(request);
+        }
+    }
+
+    @Test
+    void eachPageIsOneSelectIncludingAddresses() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<UserResponse> users = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            statistics.clear();
+            PageResponse<UserResponse> page = userService.fetchUserPage(cursor, 40).orElseThrow();
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+            users.addAll(page.getItems());
+            cursor = page.getNext();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(7);
+        assertThat(users).hasSize(USERS);
+        assertThat(users).extracting(UserResponse::getId).isSorted().doesNotHaveDuplicates();
+        assertThat(users).filteredOn(user -> user.getAddress() != null)
+                .hasSize(USERS / 2)
+                .allSatisfy(user -> assertThat(user.getAddress().getCity())
+                        .isEqualTo("city-" + user.getFirstName().substring("user-".length())));
+    }
+
+    @Test
+    void pageSizeIsCapped() {
+        PageResponse<UserResponse> page = userService.fetchUserPage(null, 10_000).orElseThrow();
+
+        assertThat(page.getItems()).hasSize(UserService.MAX_PAGE_SIZE);
+        assertThat(page.getNext()).isNotNull();
+    }
+
+    @Test
+    void theUnpagedListingStopsAtTheMaximumPageSize() {
+        List<UserResponse> users = userService.fetchAllUsers();
+
+        assertThat(users).hasSize(UserService.MAX_PAGE_SIZE);
+        assertThat(users).extracting(UserResponse::getId)
+                .isEqualTo(userService.fetchUserPage(null, UserService.MAX_PAGE_SIZE).orElseThrow().getItems().stream()
+                        .map(UserResponse::getId)
+                        .toList());
+    }
+
+    @Test
+    void invalidCursorIsRejected() {
+        assertThat(userService.fetchUserPage("not a cursor!", 10)).isEmpty();
+    }
+}
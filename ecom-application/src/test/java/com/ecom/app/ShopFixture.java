@@ -0,0 +1,66 @@
+package com.ecom.app;
+
+import com.ecom.app.Models.User;
+import com.ecom.app.Repository.UserRepository;
+import com.ecom.app.Service.CartService;
+import com.ecom.app.Service.Productservice;
+import com.ecom.app.dto.CartItemRequest;
+import com.ecom.app.dto.ProductRequest;
+import org.springframework.boot.test.context.TestComponent;
+
+/*
+    Users, products and carts for the tests, created through the services
+    so that the cart summaries, caches and search index see them. Tests
+    that create data @Import it; the request factories are static.
+ */
+@TestComponent
+public class ShopFixture {
+
+    private final UserRepository userRepository;
+    private final Productservice productservice;
+    private final CartService cartService;
+
+    public ShopFixture(UserRepository userRepository, Productservice productservice, CartService cartService) {
+        this.userRepository = userRepository;
+        this.productservice = productservice;
+        this.cartService = cartService;
+    }
+
+    public static ProductRequest product(String name, int price, int stock) {
+        ProductRequest product = new ProductRequest();
+        product.setName(name);
+        product.setPrice(price);
+        product.setStockQuantity(stock);
+        return product;
+    }
+
+    public static ProductRequest product(String name, String category, int price, int stock) {
+        ProductRequest product = product(name, price, stock);
+        product.setCategory(category);
+        return product;
+    }
+
+    public static CartItemRequest cartItem(Long productId, int quantity) {
+        CartItemRequest cartItem = new CartItemRequest();
+        cartItem.setProductId(productId);
+        cartItem.setQuantity(quantity);
+        return cartItem;
+    }
+
+    // the id as the X-User-ID header and the services take it
+    public String createUser(String firstName) {
+        User user = new User();
+        user.setFirstName(firstName);
+        return String.valueOf(userRepository.save(user).getId());
+    }
+
+    // line i is a new product priced 5 + i with 100 in stock, quantity of each in the cart
+    public String createUserWithCart(String firstName, int lines, int quantity) {
+        String userId = createUser(firstName);
+        for (int i = 0; i < lines; i++) {
+            Long productId = productservice.createProduct(product(firstName + "-product-" + i, 5 + i, 100)).getId();
+            cartService.addToCart(userId, cartItem(productId, quantity));
+        }
+        return userId;
+    }
+}
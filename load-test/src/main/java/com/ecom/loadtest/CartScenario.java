@@ -0,0 +1,80 @@
+package com.ecom.loadtest;
+
+import com.ecom.app.Models.Product;
+import com.ecom.app.Models.User;
+import com.ecom.app.Repository.ProductRepository;
+import com.ecom.app.Repository.UserRepository;
+
+import java.net.http.HttpRequest;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/*
+    Every client is its own user and repeats add to cart, view cart,
+    remove from cart on random products, so each request runs JDBC and
+    carts stay small for the whole run.
+ */
+public class CartScenario implements Scenario {
+
+    private final EcomServer server;
+    private final List<Long> userIds;
+    private final List<Long> productIds;
+    private final int[] steps;
+    private final long[] lastProduct;
+
+    public CartScenario(EcomServer server, int clients, int products) {
+        this.server = server;
+        this.userIds = server.getBean(UserRepository.class)
+                .saveAll(IntStream.range(0, clients).mapToObj(i -> user("load-" + i)).toList())
+                .stream().map(User::getId).toList();
+        this.productIds = server.getBean(ProductRepository.class)
+                .saveAll(IntStream.range(0, products).mapToObj(i -> product("load-product-" + i)).toList())
+                .stream().map(Product::getId).toList();
+        this.steps = new int[clients];
+        this.lastProduct = new long[clients];
+    }
+
+    @Override
+    public LoadRequest next(int client) {
+        String userId = String.valueOf(userIds.get(client));
+        switch (steps[client]++ % 3) {
+            case 0 -> {
+                lastProduct[client] = productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+                return new LoadRequest("POST /api/cart", HttpRequest.newBuilder(server.uri("/api/cart"))
+                        .header("X-User-ID", userId)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"productId\":" + lastProduct[client] + ",\"quantity\":1}"))
+                        .build());
+            }
+            case 1 -> {
+                return new LoadRequest("GET /api/cart", HttpRequest.newBuilder(server.uri("/api/cart"))
+                        .header("X-User-ID", userId)
+                        .GET()
+                        .build());
+            }
+            default -> {
+                return new LoadRequest("DELETE /api/cart/items/{id}",
+                        HttpRequest.newBuilder(server.uri("/api/cart/items/" + lastProduct[client]))
+                                .header("X-User-ID", userId)
+                                .DELETE()
+                                .build());
+            }
+        }
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setFirstName(name);
+        return user;
+    }
+
+    private static Product product(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(100);
+        product.setStockQuantity(Integer.MAX_VALUE);
+        return product;
+    }
+}
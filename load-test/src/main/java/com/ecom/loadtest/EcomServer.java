@@ -0,0 +1,60 @@
+package com.ecom.loadtest;
+
+import com.ecom.app.EcomApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    Runs ecom-application in this JVM on a random port, against a private
+    in-memory H2 database and with SQL logging turned off. The settings
+    are passed as command line arguments so they win over the
+    application's own application.properties. Platform mode
+    gets the same Hikari settings as the virtual profile, so both modes
+    are limited by the same connection pool.
+ */
+public final class EcomServer implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+    private final URI baseUri;
+
+    private EcomServer(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+    }
+
+    public static EcomServer start(String name, boolean virtualThreads, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.datasource.hikari.maximum-pool-size=20",
+                "--spring.datasource.hikari.connection-timeout=10000"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(EcomApplication.class);
+        if (virtualThreads) {
+            builder.profiles("virtual");
+        }
+        return new EcomServer(builder.run(args.toArray(String[]::new)));
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public URI uri(String path) {
+        return baseUri.resolve(path);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
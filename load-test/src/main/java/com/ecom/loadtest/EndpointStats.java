@@ -0,0 +1,28 @@
+package com.ecom.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+/*
+    Latencies (in microseconds, up to a minute, 3 significant digits) and
+    errors of one endpoint. Each client owns its own instances, so
+    recording needs no synchronization; they are merged after the run.
+ */
+final class EndpointStats {
+
+    private static final long HIGHEST_MICROS = 60_000_000;
+
+    final Histogram histogram = new Histogram(HIGHEST_MICROS, 3);
+    long errors;
+
+    void record(long nanos, boolean failed) {
+        histogram.recordValue(Math.min(nanos / 1_000, HIGHEST_MICROS));
+        if (failed) {
+            errors++;
+        }
+    }
+
+    void add(EndpointStats other) {
+        histogram.add(other.histogram);
+        errors += other.errors;
+    }
+}
@@ -0,0 +1,65 @@
+package com.ecom.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+    Merged results of one run, per endpoint and for all endpoints together.
+ */
+public final class LoadReport {
+
+    private final int clients;
+    private final double seconds;
+    private final Map<String, EndpointStats> endpoints = new TreeMap<>();
+    private final EndpointStats total = new EndpointStats();
+
+    LoadReport(int clients, double seconds, List<Map<String, EndpointStats>> perClient) {
+        this.clients = clients;
+        this.seconds = seconds;
+        perClient.forEach(stats -> stats.forEach((endpoint, endpointStats) -> {
+            endpoints.computeIfAbsent(endpoint, key -> new EndpointStats()).add(endpointStats);
+            total.add(endpointStats);
+        }));
+    }
+
+    public LoadResult total(String name) {
+        return result(name, total);
+    }
+
+    public List<LoadResult> byEndpoint() {
+        return endpoints.entrySet().stream()
+                .map(entry -> result(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    // HdrHistogram percentile distribution per endpoint, in milliseconds, for plotting
+    public void writeDistributions(Path directory) throws FileNotFoundException {
+        for (Map.Entry<String, EndpointStats> entry : endpoints.entrySet()) {
+            String file = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+            try (PrintStream out = new PrintStream(directory.resolve(file).toFile())) {
+                entry.getValue().histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private LoadResult result(String name, EndpointStats stats) {
+        Histogram histogram = stats.histogram;
+        long requests = histogram.getTotalCount();
+        return new LoadResult(name, clients, requests, stats.errors, seconds, requests / seconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
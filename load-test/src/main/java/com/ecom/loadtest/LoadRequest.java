@@ -0,0 +1,7 @@
+package com.ecom.loadtest;
+
+import java.net.http.HttpRequest;
+
+// a request and the endpoint its latency is reported under
+public record LoadRequest(String endpoint, HttpRequest request) {
+}
@@ -0,0 +1,15 @@
+package com.ecom.loadtest;
+
+public record LoadResult(String name, int clients, long requests, long errors, double seconds, double throughput,
+                         double p50Millis, double p90Millis, double p99Millis, double p999Millis, double maxMillis) {
+
+    static String header(String nameColumn) {
+        return String.format("%-32s %8s %10s %8s %10s %9s %9s %9s %9s %9s",
+                nameColumn, "clients", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    String row() {
+        return String.format("%-32s %8d %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                name, clients, requests, errors, throughput, p50Millis, p90Millis, p99Millis, p999Millis, maxMillis);
+    }
+}
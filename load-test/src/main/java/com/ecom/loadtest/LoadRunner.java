@@ -0,0 +1,76 @@
+package com.ecom.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+    Closed-loop load: every client sends its next request as soon as the
+    previous one has been answered. Clients run on virtual threads, so the
+    client side never runs out of threads. Only requests that start after
+    the warmup are recorded, under the endpoint the scenario names; a
+    status >= 400 or an I/O error counts as an error.
+ */
+public final class LoadRunner {
+
+    private LoadRunner() {
+    }
+
+    public static LoadReport run(Scenario scenario, int clients,
+                                 Duration warmup, Duration duration) throws InterruptedException {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        List<Map<String, EndpointStats>> perClient = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < clients; client++) {
+                Map<String, EndpointStats> stats = new HashMap<>();
+                perClient.add(stats);
+                int index = client;
+                executor.submit(() -> {
+                    start.await();
+                    long now;
+                    while ((now = System.nanoTime()) < measureUntil) {
+                        LoadRequest next = scenario.next(index);
+                        boolean failed = !send(http, next.request());
+                        long latency = System.nanoTime() - now;
+                        if (now >= measureFrom) {
+                            stats.computeIfAbsent(next.endpoint(), endpoint -> new EndpointStats())
+                                    .record(latency, failed);
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+        http.close();
+
+        return new LoadReport(clients, duration.toNanos() / 1e9, perClient);
+    }
+
+    private static boolean send(HttpClient http, HttpRequest request) {
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
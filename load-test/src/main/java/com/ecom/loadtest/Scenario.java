@@ -0,0 +1,10 @@
+package com.ecom.loadtest;
+
+/*
+    The traffic of one load test. Each client calls next() with its own
+    index in a loop, so per-client state can live in arrays indexed by it.
+ */
+public interface Scenario {
+
+    LoadRequest next(int client);
+}
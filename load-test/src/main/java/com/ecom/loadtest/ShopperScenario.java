@@ -0,0 +1,168 @@
+package com.ecom.loadtest;
+
+import com.ecom.app.Service.Productservice;
+import com.ecom.app.dto.ProductRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+    Browse, search, add to cart and checkout traffic in a configurable mix.
+    -   Products are created through Productservice, so the search index and
+        caches see them, with names built from a small word list that the
+        search requests draw their keywords from.
+    -   Every client shops as its own user, seeded up front with one
+        INSERT ... SELECT, and keeps placing orders as that user. A client
+        that has nothing in its cart adds to it instead of checking out:
+        an empty cart is answered with 400 and would measure the rejection,
+        not a checkout.
+    -   The mix is a list of action=weight pairs, e.g.
+        browse=40,list=10,search=20,cart=20,checkout=10.
+ */
+public class ShopperScenario implements Scenario {
+
+    public static final String DEFAULT_MIX = "browse=40,list=10,search=20,cart=20,checkout=10";
+
+    private static final String[] ADJECTIVES = {
+            "wireless", "compact", "classic", "premium", "portable", "smart", "vintage", "rugged", "silent", "organic"};
+    private static final String[] NOUNS = {
+            "headphones", "keyboard", "backpack", "lamp", "kettle", "speaker", "jacket", "camera", "blender", "watch"};
+    private static final String[] CATEGORIES = {"Electronics", "Home", "Outdoor", "Kitchen", "Fashion"};
+
+    enum Action { BROWSE, LIST, SEARCH, CART, CHECKOUT }
+
+    private final EcomServer server;
+    private final List<Long> productIds = new ArrayList<>();
+    private final long[] userIds;
+    private final boolean[] cartFilled;
+    private final Action[] actions;
+    private final int[] cumulativeWeights;
+
+    public ShopperScenario(EcomServer server, int clients, int products, String mix) {
+        this.server = server;
+        Productservice productservice = server.getBean(Productservice.class);
+        for (int i = 0; i < products; i++) {
+            productIds.add(productservice.createProduct(product(i)).getId());
+        }
+        this.userIds = seedUsers(server.getBean(JdbcTemplate.class), clients);
+        this.cartFilled = new boolean[clients];
+
+        Map<Action, Integer> weights = parseMix(mix);
+        this.actions = weights.keySet().toArray(Action[]::new);
+        this.cumulativeWeights = new int[actions.length];
+        int total = 0;
+        for (int i = 0; i < actions.length; i++) {
+            total += weights.get(actions[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    @Override
+    public LoadRequest next(int client) {
+        long userId = userIds[client];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (pick(random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]))) {
+            case BROWSE -> new LoadRequest("GET /api/products/{id}",
+                    get("/api/products/" + randomProduct(random), userId));
+            case LIST -> new LoadRequest("GET /api/products?limit",
+                    get("/api/products?limit=50", userId));
+            case SEARCH -> new LoadRequest("GET /api/products/search",
+                    get("/api/products/search?keyword=" + URLEncoder.encode(keyword(random), StandardCharsets.UTF_8),
+                            userId));
+            case CART -> addToCart(client, userId, random);
+            case CHECKOUT -> checkout(client, userId, random);
+        };
+    }
+
+    private LoadRequest addToCart(int client, long userId, ThreadLocalRandom random) {
+        cartFilled[client] = true;
+        return new LoadRequest("POST /api/cart", HttpRequest.newBuilder(server.uri("/api/cart"))
+                .header("X-User-ID", String.valueOf(userId))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"productId\":" + randomProduct(random) + ",\"quantity\":1}"))
+                .build());
+    }
+
+    private LoadRequest checkout(int client, long userId, ThreadLocalRandom random) {
+        if (!cartFilled[client]) {
+            return addToCart(client, userId, random);
+        }
+        cartFilled[client] = false;
+        return new LoadRequest("POST /api/orders", HttpRequest.newBuilder(server.uri("/api/orders"))
+                .header("X-User-ID", String.valueOf(userId))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    private HttpRequest get(String path, long userId) {
+        return HttpRequest.newBuilder(server.uri(path))
+                .header("X-User-ID", String.valueOf(userId))
+                .GET()
+                .build();
+    }
+
+    private Action pick(int roll) {
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return actions[i];
+            }
+        }
+        throw new IllegalStateException("roll " + roll + " outside the mix");
+    }
+
+    private long randomProduct(ThreadLocalRandom random) {
+        return productIds.get(random.nextInt(productIds.size()));
+    }
+
+    private static String keyword(ThreadLocalRandom random) {
+        return random.nextBoolean()
+                ? NOUNS[random.nextInt(NOUNS.length)]
+                : ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)];
+    }
+
+    private static ProductRequest product(int i) {
+        ProductRequest product = new ProductRequest();
+        product.setName(ADJECTIVES[i % ADJECTIVES.length] + " " + NOUNS[i / ADJECTIVES.length % NOUNS.length] + " " + i);
+        product.setDescription("Load test product " + i);
+        product.setCategory(CATEGORIES[i % CATEGORIES.length]);
+        product.setPrice(10 + i % 490);
+        // checkouts never run out of stock during a run
+        product.setStockQuantity(Integer.MAX_VALUE / 2);
+        return product;
+    }
+
+    private static long[] seedUsers(JdbcTemplate jdbc, int count) {
+        jdbc.update("INSERT INTO user_table (id, first_name, last_name, email, role, created_at, updated_at) " +
+                "SELECT NEXT VALUE FOR user_table_seq, CONCAT('shopper-', X), 'Load', " +
+                "CONCAT('shopper', X, '@example.com'), 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP " +
+                "FROM SYSTEM_RANGE(1, ?)", count);
+        return jdbc.queryForList("SELECT id FROM user_table WHERE last_name = 'Load' ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    static Map<Action, Integer> parseMix(String mix) {
+        Map<Action, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected action=weight in -Dmix, got '" + entry + "'");
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(Action.valueOf(pair[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("-Dmix has no action with a positive weight: " + mix);
+        }
+        return weights;
+    }
+}
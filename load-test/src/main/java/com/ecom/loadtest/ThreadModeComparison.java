@@ -0,0 +1,48 @@
+package com.ecom.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    Runs the cart scenario against ecom-application once with Tomcat on
+    platform threads and once in the virtual-thread profile, and prints
+    throughput and latency percentiles for both.
+    -   -Dclients (default 1000), -Dwarmup and -Dduration in seconds
+        (default 10 and 30), -Dmodes (default platform,virtual).
+    -   Results are also written to target/load-test/thread-modes.json.
+ */
+public final class ThreadModeComparison {
+
+    private static final int PRODUCTS = 200;
+
+    private ThreadModeComparison() {
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int clients = Integer.getInteger("clients", 1000);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("warmup", 10));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("duration", 30));
+
+        List<LoadResult> results = new ArrayList<>();
+        for (String mode : System.getProperty("modes", "platform,virtual").split(",")) {
+            try (EcomServer server = EcomServer.start("load-" + mode, "virtual".equals(mode))) {
+                Scenario scenario = new CartScenario(server, clients, PRODUCTS);
+                results.add(LoadRunner.run(scenario, clients, warmup, duration).total(mode));
+            }
+        }
+
+        System.out.println(LoadResult.header("mode"));
+        results.forEach(result -> System.out.println(result.row()));
+
+        Path output = Path.of("target", "load-test", "thread-modes.json");
+        Files.createDirectories(output.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), results);
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecom.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    Drives browse, search, add to cart and checkout traffic against
+    ecom-application and prints throughput and latency percentiles per
+    endpoint and in total.
+    -   -Dclients (default 500), -Dwarmup and -Dduration in seconds
+        (default 10 and 30), -Dproducts (default 1000), -Dmix (default
+        ShopperScenario.DEFAULT_MIX) and -Dmode=platform|virtual (default
+        virtual).
+    -   Results are written to target/load-test/traffic-mix.json, with the
+        full percentile distribution of every endpoint next to it in an
+        .hgrm file.
+ */
+public final class TrafficMix {
+
+    private TrafficMix() {
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int clients = Integer.getInteger("clients", 500);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("warmup", 10));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("duration", 30));
+        int products = Integer.getInteger("products", 1000);
+        String mix = System.getProperty("mix", ShopperScenario.DEFAULT_MIX);
+        String mode = System.getProperty("mode", "virtual");
+
+        LoadReport report;
+        try (EcomServer server = EcomServer.start("traffic-mix", "virtual".equals(mode))) {
+            Scenario scenario = new ShopperScenario(server, clients, products, mix);
+            report = LoadRunner.run(scenario, clients, warmup, duration);
+        }
+
+        List<LoadResult> results = new ArrayList<>(report.byEndpoint());
+        results.add(report.total("total"));
+        System.out.println("mix " + mix + ", " + mode + " threads");
+        System.out.println(LoadResult.header("endpoint"));
+        results.forEach(result -> System.out.println(result.row()));
+
+        Path directory = Path.of("target", "load-test");
+        Files.createDirectories(directory);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(directory.resolve("traffic-mix.json").toFile(), results);
+        report.writeDistributions(directory);
+    }
+}